@@ -0,0 +1,69 @@
+package buddy.data;
+
+import buddy.util.BuddyException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures read throughput on a shared {@link ConcurrentTaskList} while one writer keeps
+ * adding and deleting tasks. Run it with different reader counts, for example
+ * {@code -tg 1,1,1}, {@code -tg 2,2,1} and {@code -tg 4,4,1}, to see how reads scale across cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentTaskListBenchmark {
+    @Param({"10000", "100000"})
+    public int taskCount;
+
+    private ConcurrentTaskList tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = new ConcurrentTaskList(new IndexedTaskList());
+        for (int i = 0; i < taskCount; i++) {
+            tasks.addTodo("Task number " + i);
+        }
+        tasks.buildIndexes();
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public Task getTask() throws BuddyException {
+        return tasks.getTask(ThreadLocalRandom.current().nextInt(taskCount));
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public ArrayList<Task> findTasks() {
+        return tasks.findTasks("number " + ThreadLocalRandom.current().nextInt(taskCount));
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public Task addAndDelete() throws BuddyException {
+        Task task = tasks.addTodo("Extra task");
+        return tasks.deleteTaskById(task.getId());
+    }
+}
@@ -0,0 +1,77 @@
+package buddy.data;
+
+import buddy.util.BuddyException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the task list queries and the head deletion, on both the object and the compact list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class TaskListBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"plain", "compact"})
+    public String listType;
+
+    private TaskList tasks;
+
+    @Setup
+    public void setUp() {
+        List<Task> initial = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            LocalDateTime date = START.plusHours(i % 10_000);
+            if (i % 2 == 0) {
+                initial.add(new Todo("read chapter " + i + " of the book"));
+            } else {
+                initial.add(new Deadline("submit report " + i, date));
+            }
+        }
+        tasks = listType.equals("compact") ? new CompactTaskList(initial) : new IndexedTaskList(initial);
+        // Build the lazy indexes up front, so that no measured call pays for them
+        tasks.buildIndexes();
+        tasks.findTasks("book");
+    }
+
+    @Benchmark
+    public ArrayList<Task> findTasks() {
+        return tasks.findTasks("chapter 42");
+    }
+
+    @Benchmark
+    public ArrayList<Task> getTasksOnDate() {
+        return tasks.getTasksOnDate(START.plusDays(100));
+    }
+
+    /**
+     * Deletes the first task and appends a new one, which keeps the list at its size.
+     */
+    @Benchmark
+    public Task deleteHeadTask() throws BuddyException {
+        Task deleted = tasks.deleteTask(0);
+        tasks.addTodo("read another chapter");
+        return deleted;
+    }
+}
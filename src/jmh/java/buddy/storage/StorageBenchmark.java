@@ -0,0 +1,112 @@
+package buddy.storage;
+
+import buddy.data.Deadline;
+import buddy.data.Event;
+import buddy.data.Task;
+import buddy.data.Todo;
+import buddy.util.BuddyException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and saving a whole data file, in either file format.
+ * The file lives in a temporary directory that is removed after the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"text", "binary"})
+    public String format;
+
+    private Path directory;
+    private Storage storage;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() throws IOException, BuddyException {
+        directory = Files.createTempDirectory("buddy-bench");
+        storage = new Storage(directory.resolve("buddy.txt").toString());
+        if (format.equals("binary")) {
+            storage.enableBinaryFormat();
+        }
+        tasks = createTasks(taskCount);
+        storage.save(tasks);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, BuddyException {
+        storage.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public ArrayList<Task> load() throws BuddyException {
+        return storage.load();
+    }
+
+    @Benchmark
+    public void save() throws BuddyException {
+        storage.save(tasks);
+    }
+
+    /**
+     * Creates a mix of todos, deadlines and events with varied descriptions and dates.
+     *
+     * @param count The number of tasks.
+     * @return The tasks, a third of them done.
+     */
+    private static List<Task> createTasks(int count) {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime date = start.plusHours(i % 10_000);
+            Task task;
+            switch (i % 3) {
+                case 0:
+                    task = new Todo("read chapter " + i + " of the book");
+                    break;
+                case 1:
+                    task = new Deadline("submit report " + i, date);
+                    break;
+                default:
+                    task = new Event("team meeting " + i, date, date.plusHours(2));
+                    break;
+            }
+            if (i % 3 == 2) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,61 @@
+package buddy.ui;
+
+import buddy.data.Deadline;
+import buddy.data.Task;
+import buddy.data.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering a full task listing, with the output written to a stream that discards it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UiBenchmark {
+    @Param({"1000", "100000"})
+    public int taskCount;
+
+    private List<Task> tasks;
+    private Ui ui;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            if (i % 2 == 0) {
+                tasks.add(new Todo("read chapter " + i + " of the book"));
+            } else {
+                tasks.add(new Deadline("submit report " + i, start.plusHours(i)));
+            }
+        }
+        ui = new Ui(new StringReader(""), new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Benchmark
+    public void showTaskList() {
+        ui.showTaskList(tasks);
+        ui.flush();
+    }
+}
@@ -0,0 +1,48 @@
+package buddy.util;
+
+import buddy.commands.Command;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time and, with {@code -prof gc}, the allocation of parsing one command line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+    @Param({
+        "todo read book",
+        "deadline return book /by 2/12/2023 1800",
+        "event project meeting /from 6/8/2023 1400 /to 6/8/2023 1600",
+        "mark 3",
+        "unmark #7",
+        "delete #12",
+        "find book",
+        "list",
+        "list 2 50 --pending --type D",
+        "date 2/12/2023",
+        "agenda 1/12/2023 7/12/2023",
+        "cheer",
+        "bye"
+    })
+    public String commandLine;
+
+    @Benchmark
+    public Command parse() throws BuddyException {
+        return Parser.parse(commandLine);
+    }
+}
@@ -1,21 +1,52 @@
 package buddy;
 
 import buddy.commands.Command;
+import buddy.data.CompactTaskList;
+import buddy.data.ConcurrentTaskList;
+import buddy.data.DescriptionArena;
+import buddy.data.IndexedTaskList;
+import buddy.data.Task;
 import buddy.data.TaskList;
+import buddy.storage.DurabilityPolicy;
 import buddy.storage.Storage;
 import buddy.ui.Ui;
 import buddy.util.BuddyException;
+import buddy.util.CommandMetrics;
 import buddy.util.Parser;
 
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
 /**
  * Main class for the Buddy task management application.
  * This class serves as the entry point and coordinates the different components
  * of the application including the UI, storage, and task management.
  */
 public class Buddy {
+    private static final String FILE_PATH = "./data/buddy.txt";
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+    private static final int DEFAULT_SERVER_PORT = 4545;
+    private static final int MAX_PORT = 65535;
+
     private final Storage storage;
     private TaskList tasks;
     private final Ui ui;
+    // Serializes changing commands from concurrent sessions; a lock rather than synchronized
+    // so that a waiting virtual thread does not pin its carrier thread
+    private final ReentrantLock commandLock = new ReentrantLock();
 
     /**
      * Initializes the Buddy application with the specified storage file path.
@@ -25,48 +56,303 @@ public class Buddy {
      * @param filePath The path to the file where tasks will be stored.
      */
     public Buddy(String filePath) {
-        ui = new Ui();
-        storage = new Storage(filePath);
+        this(new Storage(filePath));
+    }
+
+    /**
+     * Initializes the Buddy application with an already configured storage.
+     * If loading fails, it will start with an empty task list.
+     *
+     * @param storage The storage to load tasks from and save tasks to.
+     */
+    public Buddy(Storage storage) {
+        this(storage, IndexedTaskList::new);
+    }
+
+    /**
+     * Initializes the Buddy application with an already configured storage and a choice
+     * of task list, such as a {@link CompactTaskList} to save memory.
+     * If loading fails, it will start with an empty task list.
+     *
+     * @param storage The storage to load tasks from and save tasks to.
+     * @param taskListFactory Creates the task list holding the given initial tasks.
+     */
+    public Buddy(Storage storage, Function<List<Task>, TaskList> taskListFactory) {
+        this(storage, taskListFactory, new Ui());
+    }
+
+    /**
+     * Initializes the Buddy application with an already configured storage, task list and UI,
+     * such as a UI that runs a batch of commands.
+     * If loading fails, it will start with an empty task list.
+     *
+     * @param storage The storage to load tasks from and save tasks to.
+     * @param taskListFactory Creates the task list holding the given initial tasks.
+     * @param ui The UI to read commands from and show results on.
+     */
+    public Buddy(Storage storage, Function<List<Task>, TaskList> taskListFactory, Ui ui) {
+        this.ui = ui;
+        this.storage = storage;
         try {
-            tasks = new TaskList(storage.load());
+            tasks = taskListFactory.apply(storage.load());
+            tasks.reserveIdsBelow(storage.getNextId());
+            if (!storage.getLoadWarnings().isEmpty()) {
+                ui.showLoadingWarnings(storage.getLoadWarnings());
+            }
         } catch (BuddyException e) {
             ui.showLoadingError(e.getMessage());
-            tasks = new TaskList();
+            tasks = taskListFactory.apply(new ArrayList<>());
         }
     }
 
     /**
      * Runs the main application loop.
      * Displays the welcome message and continuously processes user commands
-     * until the user issues an exit command.
+     * until the user issues an exit command or a batch of commands runs out.
      */
     public void run() {
         ui.showWelcome();
+        runSession(ui);
+        closeStorage(ui);
+        ui.flush();
+    }
+
+    /**
+     * Serves sessions over TCP connections on the loopback interface until the process is stopped.
+     * Each connection gets its own virtual thread and UI and works on the shared task list
+     * and storage. Commands that change the list run one at a time, while read-only ones
+     * run alongside them on a {@link ConcurrentTaskList}. An exit command only ends its own session.
+     * Idle connections block in a read on their virtual thread, which holds no platform thread.
+     *
+     * @param port The port to listen on.
+     */
+    public void serve(int port) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            commandLock.lock();
+            try {
+                closeStorage(ui);
+                ui.flush();
+            } finally {
+                commandLock.unlock();
+            }
+        }));
+        try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            serve(serverSocket);
+        } catch (IOException e) {
+            ui.showError("Server stopped: " + e.getMessage());
+            ui.flush();
+        }
+    }
+
+    /**
+     * Serves sessions on a listening socket until it is closed, then waits for the open sessions to end.
+     *
+     * @param serverSocket The socket to accept connections on.
+     * @throws IOException If accepting a connection fails, such as when the socket is closed.
+     */
+    void serve(ServerSocket serverSocket) throws IOException {
+        // Builds every index up front, so that no search has to wait for one under the write lock
+        tasks = new ConcurrentTaskList(tasks);
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            ui.showServerStarted(serverSocket.getLocalPort());
+            ui.flush();
+            while (true) {
+                Socket connection = serverSocket.accept();
+                sessions.execute(() -> serveConnection(connection));
+            }
+        }
+    }
+
+    private void serveConnection(Socket connection) {
+        try (connection) {
+            Ui sessionUi = new Ui(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8),
+                    new PrintStream(connection.getOutputStream(), false, StandardCharsets.UTF_8));
+            sessionUi.showWelcome();
+            runSession(sessionUi);
+            sessionUi.flush();
+        } catch (IOException e) {
+            // The client went away; its session ends with nothing left to report
+        }
+    }
+
+    /**
+     * Reads and executes commands from one UI until it issues an exit command or runs out of commands.
+     * Commands are parsed outside the command lock, and those that change the task list are
+     * executed while holding it. Read-only commands skip the lock if the task list is concurrent.
+     * The parse and execute times of every command are recorded in the shared {@link CommandMetrics}.
+     */
+    private void runSession(Ui sessionUi) {
         boolean isExit = false;
 
         while (!isExit) {
             try {
-                String fullCommand = ui.readCommand();
+                String fullCommand = sessionUi.readCommand();
+                if (fullCommand == null) {
+                    break;
+                }
                 //ui.showLine();
-                Command command = Parser.parse(fullCommand);
-                command.execute(tasks, ui, storage);
+                long parseStart = System.nanoTime();
+                Command command;
+                try {
+                    command = Parser.parse(fullCommand);
+                } catch (BuddyException e) {
+                    CommandMetrics.shared().recordInvalidCommand(System.nanoTime() - parseStart);
+                    throw e;
+                }
+                execute(command, sessionUi, System.nanoTime() - parseStart);
                 isExit = command.isExit();
             } catch (BuddyException e) {
-                ui.showError(e.getMessage());
+                sessionUi.showError(e.getMessage());
             } finally {
                 //ui.showLine();
             }
         }
     }
 
+    private void execute(Command command, Ui sessionUi, long parseNanos) throws BuddyException {
+        boolean isLocked = !command.isReadOnly() || !(tasks instanceof ConcurrentTaskList);
+        if (isLocked) {
+            commandLock.lock();
+        }
+        CommandMetrics metrics = CommandMetrics.shared();
+        metrics.beginCommand();
+        long executeStart = System.nanoTime();
+        try {
+            command.execute(tasks, sessionUi, storage);
+        } finally {
+            long executeNanos = System.nanoTime() - executeStart;
+            if (isLocked) {
+                commandLock.unlock();
+            }
+            metrics.recordCommand(command.getType(), parseNanos, executeNanos);
+        }
+    }
+
+    private void closeStorage(Ui errorUi) {
+        try {
+            storage.close();
+        } catch (BuddyException e) {
+            errorUi.showError(e.getMessage());
+        }
+    }
+
     /**
      * The entry point of the application.
      * Creates a new Buddy instance and runs it.
+     * Pass {@code --journal} to append each change to a journal instead of
+     * rewriting the whole data file, and {@code --async[=always|on-exit|<millis>]}
+     * to also move those appends to a group-commit writer thread. Pass {@code --binary}
+     * to save tasks in the compact binary file format instead; the data file keeps its
+     * path, as loading detects either format. Pass {@code --compact} to hold tasks in
+     * memory column by column; {@code --compact=off-heap} also moves their descriptions
+     * out of the Java heap. Pass {@code --batch <file>} to run the
+     * commands in a file, or {@code --batch} alone to run those piped to standard input,
+     * with output buffered and saving deferred until the end. Pass {@code --server[=<port>]}
+     * to serve sessions over TCP on the loopback interface instead of the console.
+     * Pass {@code --jmx} to publish the per-command metrics shown by {@code stats} as an
+     * MBean, which server mode always does.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments.
      */
     public static void main(String[] args) {
-        new Buddy("./data/buddy.txt").run();
+        Function<List<Task>, TaskList> taskListFactory = IndexedTaskList::new;
+        Storage storage = new Storage(FILE_PATH);
+        Ui ui = null;
+        int serverPort = -1;
+        boolean isJmx = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--batch")) {
+                boolean hasFile = i + 1 < args.length && !args[i + 1].startsWith("--");
+                ui = hasFile ? openBatch(args[++i]) : new Ui(new InputStreamReader(System.in));
+                if (ui == null) {
+                    return;
+                }
+                storage.deferWrites();
+            } else if (arg.equals("--compact")) {
+                taskListFactory = CompactTaskList::new;
+            } else if (arg.equals("--compact=off-heap")) {
+                taskListFactory = tasks -> new CompactTaskList(tasks, new DescriptionArena(true));
+            } else if (arg.equals("--binary")) {
+                storage.enableBinaryFormat();
+            } else if (arg.equals("--journal")) {
+                storage.enableJournal();
+            } else if (arg.equals("--async") || arg.startsWith("--async=")) {
+                enableAsyncWrites(storage, arg.substring("--async".length()));
+            } else if (arg.equals("--server") || arg.startsWith("--server=")) {
+                serverPort = parseServerPort(arg.substring("--server".length()));
+            } else if (arg.equals("--jmx")) {
+                isJmx = true;
+            } else {
+                System.out.println("Ignoring unknown option: " + arg);
+            }
+        }
+        if (isJmx || serverPort >= 0) {
+            registerMetrics();
+        }
+        Buddy buddy = new Buddy(storage, taskListFactory, ui != null ? ui : new Ui());
+        if (serverPort >= 0) {
+            buddy.serve(serverPort);
+        } else {
+            buddy.run();
+        }
+    }
+
+    private static void registerMetrics() {
+        try {
+            CommandMetrics.shared().registerMBean();
+        } catch (BuddyException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static int parseServerPort(String port) {
+        if (port.isEmpty()) {
+            return DEFAULT_SERVER_PORT;
+        }
+        try {
+            int number = Integer.parseInt(port.substring(1));
+            if (number >= 0 && number <= MAX_PORT) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        System.out.println("Unknown server port: " + port.substring(1));
+        return DEFAULT_SERVER_PORT;
+    }
+
+    private static Ui openBatch(String batchFilePath) {
+        try {
+            return new Ui(new FileReader(batchFilePath));
+        } catch (FileNotFoundException e) {
+            System.out.println("Cannot read batch file: " + batchFilePath);
+            return null;
+        }
+    }
+
+    private static void enableAsyncWrites(Storage storage, String policy) {
+        switch (policy) {
+            case "":
+                storage.enableAsyncWrites(DurabilityPolicy.INTERVAL, DEFAULT_SYNC_INTERVAL_MILLIS);
+                break;
+            case "=always":
+                storage.enableAsyncWrites(DurabilityPolicy.ALWAYS, 0);
+                break;
+            case "=on-exit":
+                storage.enableAsyncWrites(DurabilityPolicy.ON_EXIT, 0);
+                break;
+            default:
+                try {
+                    long intervalMillis = Long.parseLong(policy.substring(1));
+                    storage.enableAsyncWrites(DurabilityPolicy.INTERVAL, intervalMillis);
+                } catch (NumberFormatException e) {
+                    System.out.println("Unknown durability policy: " + policy.substring(1));
+                    storage.enableAsyncWrites(DurabilityPolicy.INTERVAL, DEFAULT_SYNC_INTERVAL_MILLIS);
+                }
+                break;
+        }
     }
 }
 
@@ -0,0 +1,26 @@
+package buddy.commands;
+
+import java.time.LocalDateTime;
+import buddy.data.TaskList;
+import buddy.storage.Storage;
+import buddy.ui.Ui;
+
+/**
+ * Shows all deadlines and events that fall within a range of dates, in chronological order.
+ */
+public class AgendaCommand extends Command {
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public AgendaCommand(LocalDateTime from, LocalDateTime to) {
+        super();
+        this.isReadOnly = true;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        ui.showAgenda(tasks.getAgenda(from, to), from, to);
+    }
+}
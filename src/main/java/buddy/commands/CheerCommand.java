@@ -11,39 +11,117 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Command to display a random motivational quote for software engineers.
+ * The quotes are kept in memory between commands. The file is checked at most once a
+ * second and only read again when its modification time or size has changed.
  */
 public class CheerCommand extends Command {
     private static final String CHEER_FILE = "./data/cheer.txt";
-    private static final Random RANDOM = new Random();
+    private static final long RECHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Not a monitor, which would pin a server session's virtual thread during the file read
+    private static final ReentrantLock REFRESH_LOCK = new ReentrantLock();
+
+    private static volatile QuoteSnapshot cachedQuotes;
+
+    private final File cheerFile;
+
+    /**
+     * Creates a command that shows a random quote.
+     */
+    public CheerCommand() {
+        this(new File(CHEER_FILE));
+    }
+
+    /**
+     * Creates a command that shows a random quote from the given file.
+     *
+     * @param cheerFile The quotes file, one quote per line.
+     */
+    CheerCommand(File cheerFile) {
+        super();
+        this.cheerFile = cheerFile;
+        this.isReadOnly = true;
+    }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws BuddyException {
+        String[] quotes = getQuotes(cheerFile);
+        if (quotes.length == 0) {
+            throw new BuddyException("No motivational quotes found. Please check " + cheerFile.getPath());
+        }
+
+        String randomQuote = quotes[ThreadLocalRandom.current().nextInt(quotes.length)];
+        ui.showCheer(randomQuote);
+    }
+
+    /**
+     * Gets the cached quotes, refreshing them first if the file is due for a check.
+     *
+     * @param file The quotes file.
+     * @return The quotes, which must not be modified.
+     * @throws BuddyException If the file has changed and cannot be read.
+     */
+    private static String[] getQuotes(File file) throws BuddyException {
+        QuoteSnapshot snapshot = cachedQuotes;
+        if (!isFresh(snapshot, file, System.nanoTime())) {
+            snapshot = refreshQuotes(file);
+        }
+        return snapshot.quotes;
+    }
+
+    private static boolean isFresh(QuoteSnapshot snapshot, File file, long now) {
+        return snapshot != null && snapshot.file.equals(file) && now - snapshot.checkedAt < RECHECK_INTERVAL_NANOS;
+    }
+
+    private static QuoteSnapshot refreshQuotes(File file) throws BuddyException {
+        REFRESH_LOCK.lock();
         try {
-            List<String> quotes = loadQuotes();
-            if (quotes.isEmpty()) {
-                throw new BuddyException("No motivational quotes found. Please check " + CHEER_FILE);
-            }
+            return refreshQuotesLocked(file);
+        } finally {
+            REFRESH_LOCK.unlock();
+        }
+    }
 
-            String randomQuote = quotes.get(RANDOM.nextInt(quotes.size()));
-            ui.showCheer(randomQuote);
-        } catch (IOException e) {
-            throw new BuddyException("Error loading motivational quotes: " + e.getMessage());
+    private static QuoteSnapshot refreshQuotesLocked(File file) throws BuddyException {
+        long now = System.nanoTime();
+        QuoteSnapshot snapshot = cachedQuotes;
+        // Another thread may have refreshed while this one waited for the lock
+        if (isFresh(snapshot, file, now)) {
+            return snapshot;
         }
+        // Both are 0 for a missing file, which then counts as unchanged until it appears
+        long lastModified = file.lastModified();
+        long length = file.length();
+        String[] quotes;
+        if (snapshot != null && snapshot.file.equals(file) && snapshot.lastModified == lastModified && snapshot.length == length) {
+            quotes = snapshot.quotes;
+        } else {
+            try {
+                quotes = loadQuotes(file).toArray(new String[0]);
+            } catch (IOException e) {
+                throw new BuddyException("Error loading motivational quotes: " + e.getMessage());
+            }
+        }
+        snapshot = new QuoteSnapshot(file, quotes, lastModified, length, now);
+        cachedQuotes = snapshot;
+        return snapshot;
     }
 
     /**
      * Loads motivational quotes from the quotes file.
      *
+     * @param file The quotes file.
      * @return List of motivational quotes
      * @throws IOException If an error occurs reading the file
      */
-    private List<String> loadQuotes() throws IOException {
+    private static List<String> loadQuotes(File file) throws IOException {
         List<String> quotes = new ArrayList<>();
-        File file = new File(CHEER_FILE);
 
         // If file doesn't exist, create directory and return empty list
         if (!file.exists()) {
@@ -68,4 +146,23 @@ public class CheerCommand extends Command {
 
         return quotes;
     }
-}
\ No newline at end of file
+
+    /**
+     * Quotes as read from the file, with the file state they were read at.
+     */
+    private static class QuoteSnapshot {
+        private final File file;
+        private final String[] quotes;
+        private final long lastModified;
+        private final long length;
+        private final long checkedAt;
+
+        private QuoteSnapshot(File file, String[] quotes, long lastModified, long length, long checkedAt) {
+            this.file = file;
+            this.quotes = quotes;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package buddy.commands;
 
+import java.util.Locale;
 import buddy.data.TaskList;
 import buddy.storage.Storage;
 import buddy.ui.Ui;
@@ -12,12 +13,14 @@ import buddy.util.BuddyException;
  */
 public abstract class Command {
     protected boolean isExit;
+    protected boolean isReadOnly;
 
     /**
-     * Initializes a new command that does not exit the application.
+     * Initializes a new command that does not exit the application and may change the task list.
      */
     public Command() {
         this.isExit = false;
+        this.isReadOnly = false;
     }
 
     /**
@@ -39,4 +42,27 @@ public abstract class Command {
     public boolean isExit() {
         return isExit;
     }
+
+    /**
+     * Checks if this command only reads the task list, so that it may run alongside other
+     * read-only commands on a task list that supports concurrent use.
+     *
+     * @return true if the command neither changes the task list nor saves, false otherwise.
+     */
+    public boolean isReadOnly() {
+        return isReadOnly;
+    }
+
+    /**
+     * Gets the type of this command as shown in the statistics, such as {@code todo} for a {@code TodoCommand}.
+     *
+     * @return The lower-case command type.
+     */
+    public String getType() {
+        String name = getClass().getSimpleName();
+        if (name.endsWith("Command")) {
+            name = name.substring(0, name.length() - "Command".length());
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
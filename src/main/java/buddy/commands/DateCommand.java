@@ -13,6 +13,7 @@ public class DateCommand extends Command {
 
     public DateCommand(LocalDateTime searchDate) {
         super();
+        this.isReadOnly = true;
         this.searchDate = searchDate;
     }
 
@@ -21,6 +21,6 @@ public class DeadlineCommand extends Command {
     public void execute(TaskList tasks, Ui ui, Storage storage) throws BuddyException {
         Task deadlineTask = tasks.addDeadline(description, byDate);
         ui.showAddedTask(deadlineTask, tasks.size());
-        storage.save(tasks.getTasks());
+        storage.saveAdd(tasks.getTasks(), deadlineTask);
     }
 }
\ No newline at end of file
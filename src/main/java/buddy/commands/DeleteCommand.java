@@ -6,17 +6,21 @@ import buddy.util.BuddyException;
 import buddy.data.Task;
 
 public class DeleteCommand extends Command {
-    private int taskIndex;
+    private TaskTarget target;
 
     public DeleteCommand(int taskIndex) {
+        this(TaskTarget.atIndex(taskIndex));
+    }
+
+    public DeleteCommand(TaskTarget target) {
         super();
-        this.taskIndex = taskIndex;
+        this.target = target;
     }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws BuddyException {
-        Task deletedTask = tasks.deleteTask(taskIndex);
+        Task deletedTask = target.delete(tasks);
         ui.showDeletedTask(deletedTask, tasks.size());
-        storage.save(tasks.getTasks());
+        storage.saveDelete(tasks.getTasks(), deletedTask);
     }
 }
\ No newline at end of file
@@ -23,6 +23,6 @@ public class EventCommand extends Command {
     public void execute(TaskList tasks, Ui ui, Storage storage) throws BuddyException {
         Task eventTask = tasks.addEvent(description, fromDate, toDate);
         ui.showAddedTask(eventTask, tasks.size());
-        storage.save(tasks.getTasks());
+        storage.saveAdd(tasks.getTasks(), eventTask);
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ public class ExitCommand extends Command {
     public ExitCommand() {
         super();
         this.isExit = true;
+        this.isReadOnly = true;
     }
 
     @Override
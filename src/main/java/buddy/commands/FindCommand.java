@@ -13,6 +13,7 @@ public class FindCommand extends Command {
 
     public FindCommand(String keyword) {
         super();
+        this.isReadOnly = true;
         this.keyword = keyword;
     }
 
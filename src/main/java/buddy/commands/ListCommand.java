@@ -1,15 +1,60 @@
 package buddy.commands;
 
 import java.time.LocalDateTime;
+import buddy.data.TaskFilter;
 import buddy.data.TaskList;
 import buddy.storage.Storage;
 import buddy.ui.Ui;
 import buddy.util.BuddyException;
 import buddy.data.Task;
 
+/**
+ * Lists the tasks, either all of them or one page of those matching a filter.
+ * Pages are streamed to the UI task by task and keep the tasks' numbers in the full list,
+ * so they can be used with other commands directly.
+ */
 public class ListCommand extends Command {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final TaskFilter filter;
+    private final int page;
+    private final int pageSize;
+
+    /**
+     * Creates a command that lists every task.
+     */
+    public ListCommand() {
+        this(TaskFilter.ALL, 0, 0);
+    }
+
+    /**
+     * Creates a command that lists one page of the tasks matching a filter.
+     *
+     * @param filter The filter selecting the tasks.
+     * @param page The one-based page number, or 0 to list every matching task.
+     * @param pageSize The maximum number of tasks on a page.
+     */
+    public ListCommand(TaskFilter filter, int page, int pageSize) {
+        super();
+        this.isReadOnly = true;
+        this.filter = filter;
+        this.page = page;
+        this.pageSize = pageSize;
+    }
+
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) {
-        ui.showTaskList(tasks.getTasks());
+        if (page == 0 && filter.isAll()) {
+            ui.showTaskListHeader();
+            int taskCount = tasks.forEachMatching(filter, 0, Integer.MAX_VALUE, ui::showListedTask);
+            ui.showTaskListFooter(taskCount);
+            return;
+        }
+        int shownPage = Math.max(page, 1);
+        int limit = page == 0 ? Integer.MAX_VALUE : pageSize;
+        int skip = (int) Math.min((long) (shownPage - 1) * limit, Integer.MAX_VALUE);
+        ui.showTaskListHeader();
+        int matchCount = tasks.forEachMatching(filter, skip, limit, ui::showListedTask);
+        ui.showTaskPageFooter(shownPage, limit, matchCount);
     }
-}
\ No newline at end of file
+}
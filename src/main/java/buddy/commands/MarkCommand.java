@@ -8,17 +8,21 @@ import buddy.util.BuddyException;
 import buddy.data.Task;
 
 public class MarkCommand extends Command {
-    private int taskIndex;
+    private TaskTarget target;
 
     public MarkCommand(int taskIndex) {
+        this(TaskTarget.atIndex(taskIndex));
+    }
+
+    public MarkCommand(TaskTarget target) {
         super();
-        this.taskIndex = taskIndex;
+        this.target = target;
     }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws BuddyException {
-        Task markedTask = tasks.markTaskAsDone(taskIndex);
+        Task markedTask = target.markAsDone(tasks);
         ui.showMarkedTask(markedTask);
-        storage.save(tasks.getTasks());
+        storage.saveMark(tasks.getTasks(), markedTask, true);
     }
 }
\ No newline at end of file
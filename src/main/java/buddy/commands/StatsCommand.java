@@ -0,0 +1,28 @@
+package buddy.commands;
+
+import buddy.data.DescriptionPool;
+import buddy.data.TaskList;
+import buddy.storage.Storage;
+import buddy.ui.Ui;
+import buddy.util.CommandMetrics;
+
+/**
+ * Command to display how long each type of command takes and how much work it does,
+ * as recorded by {@link CommandMetrics}, and how much memory the shared
+ * {@link DescriptionPool} has saved.
+ */
+public class StatsCommand extends Command {
+    /**
+     * Creates a command that shows the command statistics.
+     */
+    public StatsCommand() {
+        super();
+        this.isReadOnly = true;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        DescriptionPool pool = DescriptionPool.shared();
+        ui.showStats(CommandMetrics.shared().getReportLines(), pool.getHitCount(), pool.getBytesSaved());
+    }
+}
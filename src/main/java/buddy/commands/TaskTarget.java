@@ -0,0 +1,76 @@
+package buddy.commands;
+
+import buddy.data.Task;
+import buddy.data.TaskList;
+import buddy.util.BuddyException;
+
+/**
+ * Identifies the task a command acts on, either by its position in the list
+ * or by its persistent ID.
+ */
+public class TaskTarget {
+    private final int index;
+    private final long id;
+
+    private TaskTarget(int index, long id) {
+        this.index = index;
+        this.id = id;
+    }
+
+    /**
+     * Creates a target for the task at the given position.
+     *
+     * @param index The zero-based index of the task.
+     * @return The target.
+     */
+    public static TaskTarget atIndex(int index) {
+        return new TaskTarget(index, 0);
+    }
+
+    /**
+     * Creates a target for the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The target.
+     */
+    public static TaskTarget withId(long id) {
+        return new TaskTarget(-1, id);
+    }
+
+    /**
+     * Marks the targeted task as done.
+     *
+     * @param tasks The task list containing the task.
+     * @return The updated task.
+     * @throws BuddyException If there is no such task.
+     */
+    public Task markAsDone(TaskList tasks) throws BuddyException {
+        return isById() ? tasks.markTaskAsDoneById(id) : tasks.markTaskAsDone(index);
+    }
+
+    /**
+     * Marks the targeted task as not done.
+     *
+     * @param tasks The task list containing the task.
+     * @return The updated task.
+     * @throws BuddyException If there is no such task.
+     */
+    public Task markAsUndone(TaskList tasks) throws BuddyException {
+        return isById() ? tasks.markTaskAsUndoneById(id) : tasks.markTaskAsUndone(index);
+    }
+
+    /**
+     * Deletes the targeted task.
+     *
+     * @param tasks The task list containing the task.
+     * @return The deleted task.
+     * @throws BuddyException If there is no such task.
+     */
+    public Task delete(TaskList tasks) throws BuddyException {
+        return isById() ? tasks.deleteTaskById(id) : tasks.deleteTask(index);
+    }
+
+    private boolean isById() {
+        return id > 0;
+    }
+}
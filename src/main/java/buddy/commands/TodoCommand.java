@@ -18,6 +18,6 @@ public class TodoCommand extends Command {
     public void execute(TaskList tasks, Ui ui, Storage storage) throws BuddyException {
         Task todoTask = tasks.addTodo(description);
         ui.showAddedTask(todoTask, tasks.size());
-        storage.save(tasks.getTasks());
+        storage.saveAdd(tasks.getTasks(), todoTask);
     }
 }
\ No newline at end of file
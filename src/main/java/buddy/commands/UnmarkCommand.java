@@ -7,17 +7,21 @@ import buddy.ui.Ui;
 import buddy.util.BuddyException;
 
 public class UnmarkCommand extends Command {
-    private int taskIndex;
+    private TaskTarget target;
 
     public UnmarkCommand(int taskIndex) {
+        this(TaskTarget.atIndex(taskIndex));
+    }
+
+    public UnmarkCommand(TaskTarget target) {
         super();
-        this.taskIndex = taskIndex;
+        this.target = target;
     }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws BuddyException {
-        Task unmarkedTask = tasks.markTaskAsUndone(taskIndex);
+        Task unmarkedTask = target.markAsUndone(tasks);
         ui.showUnmarkedTask(unmarkedTask);
-        storage.save(tasks.getTasks());
+        storage.saveMark(tasks.getTasks(), unmarkedTask, false);
     }
 }
\ No newline at end of file
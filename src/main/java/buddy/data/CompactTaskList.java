@@ -0,0 +1,851 @@
+package buddy.data;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.ObjIntConsumer;
+import buddy.util.BuddyException;
+import buddy.util.CommandMetrics;
+
+/**
+ * Task list that stores its tasks column by column in primitive arrays instead of as
+ * {@link Task} objects: the type in a {@code byte[]}, the done and deleted flags in {@link BitSet}s,
+ * the IDs and dates in {@code long[]} columns (dates as epoch minutes) and the
+ * descriptions as UTF-8 in a shared {@link DescriptionArena}, which can live off-heap.
+ * This takes a few dozen bytes per task plus the text, against well over a hundred for
+ * the object graph of a task, at the cost of scanning for searches instead of indexing.
+ * Only IDs are indexed, by a {@link TaskIdMap} that holds slots but no tasks.
+ *
+ * <p>Tasks handed out by this list, including through {@link #getTasks()}, are views
+ * built on demand. Changing a view does not change the list; use the list's own
+ * methods instead. Like {@link IndexedTaskList}, deleted tasks leave tombstone slots that a
+ * {@link LiveSlotCounter} skips over until enough accumulate to squeeze them out.
+ *
+ * <p>An immutable {@link Snapshot} of the list can be taken in O(1) time. It shares the
+ * columns, which only change in place by appending, except for the two flag sets. A change
+ * copies a flag set before it first writes to it after a snapshot, which costs a bit per
+ * task, and holds back the descriptions it frees until every snapshot that can read them is gone.
+ */
+public class CompactTaskList extends TaskList {
+    private static final byte TYPE_TODO = 0;
+    private static final byte TYPE_DEADLINE = 1;
+    private static final byte TYPE_EVENT = 2;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private final LiveSlotCounter counter = new LiveSlotCounter();
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private BitSet doneFlags = new BitSet();
+    private BitSet deletedFlags = new BitSet();
+    private int[] descriptionHandles = new int[INITIAL_CAPACITY];
+    private final TaskIdMap slotsById = new TaskIdMap(false);
+    private final DescriptionArena descriptions;
+    private final ArrayDeque<HeldDescriptions> heldDescriptions = new ArrayDeque<>();
+    private Snapshot latestSnapshot;
+    private boolean areDeletedFlagsShared;
+    private boolean areDoneFlagsShared;
+    private long lastId;
+
+    /**
+     * Creates an empty compact task list that keeps descriptions on the heap.
+     */
+    public CompactTaskList() {
+        this(new DescriptionArena(false));
+    }
+
+    /**
+     * Creates an empty compact task list that keeps descriptions in the given arena.
+     *
+     * @param descriptions The arena to store descriptions in.
+     */
+    public CompactTaskList(DescriptionArena descriptions) {
+        super();
+        this.descriptions = descriptions;
+    }
+
+    /**
+     * Creates a compact task list holding copies of the given tasks, with descriptions on the heap.
+     * Tasks that have no ID yet, or whose ID is out of order, are given new IDs.
+     *
+     * @param tasks The initial list of tasks.
+     */
+    public CompactTaskList(List<Task> tasks) {
+        this(tasks, new DescriptionArena(false));
+    }
+
+    /**
+     * Creates a compact task list holding copies of the given tasks, with descriptions in the given arena.
+     * Tasks that have no ID yet, or whose ID is out of order, are given new IDs.
+     *
+     * @param tasks The initial list of tasks.
+     * @param descriptions The arena to store descriptions in.
+     */
+    public CompactTaskList(List<Task> tasks, DescriptionArena descriptions) {
+        this(descriptions);
+        assignIds(tasks);
+        for (Task task : tasks) {
+            if (task instanceof Deadline) {
+                append(TYPE_DEADLINE, task.getId(), task.getDescription(),
+                        toEpochMinute(((Deadline) task).getBy()), 0, task.isDone());
+            } else if (task instanceof Event) {
+                Event event = (Event) task;
+                append(TYPE_EVENT, task.getId(), task.getDescription(),
+                        toEpochMinute(event.getFrom()), toEpochMinute(event.getTo()), task.isDone());
+            } else {
+                append(TYPE_TODO, task.getId(), task.getDescription(), 0, 0, task.isDone());
+            }
+            lastId = task.getId();
+        }
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return new TaskView();
+    }
+
+    /**
+     * Takes an immutable snapshot of the tasks in O(1) time, which can be read from any thread.
+     * Several threads may take snapshots at once, but not while the list is being changed.
+     *
+     * @return The tasks as they are now, in list order.
+     */
+    public synchronized Snapshot snapshot() {
+        if (latestSnapshot == null) {
+            latestSnapshot = new Snapshot(this);
+            areDeletedFlagsShared = true;
+            areDoneFlagsShared = true;
+            heldDescriptions.addLast(new HeldDescriptions(latestSnapshot));
+        }
+        return latestSnapshot;
+    }
+
+    @Override
+    public int size() {
+        return counter.getLiveCount();
+    }
+
+    @Override
+    public void reserveIdsBelow(long nextId) {
+        lastId = Math.max(lastId, nextId - 1);
+    }
+
+    @Override
+    public Task getTask(int index) throws BuddyException {
+        return toTask(slotOf(index));
+    }
+
+    @Override
+    public Task getTaskById(long id) throws BuddyException {
+        return toTask(slotOfId(id));
+    }
+
+    @Override
+    public int getIndexById(long id) throws BuddyException {
+        return counter.indexOf(slotOfId(id));
+    }
+
+    @Override
+    public Task addTodo(String description) {
+        return toTask(append(TYPE_TODO, ++lastId, description, 0, 0, false));
+    }
+
+    @Override
+    public Task addDeadline(String description, LocalDateTime by) {
+        return toTask(append(TYPE_DEADLINE, ++lastId, description, toEpochMinute(by), 0, false));
+    }
+
+    @Override
+    public Task addEvent(String description, LocalDateTime from, LocalDateTime to) {
+        return toTask(append(TYPE_EVENT, ++lastId, description, toEpochMinute(from), toEpochMinute(to), false));
+    }
+
+    @Override
+    public Task markTaskAsDone(int index) throws BuddyException {
+        return setDone(slotOf(index), true);
+    }
+
+    @Override
+    public Task markTaskAsDoneById(long id) throws BuddyException {
+        return setDone(slotOfId(id), true);
+    }
+
+    @Override
+    public Task markTaskAsUndone(int index) throws BuddyException {
+        return setDone(slotOf(index), false);
+    }
+
+    @Override
+    public Task markTaskAsUndoneById(long id) throws BuddyException {
+        return setDone(slotOfId(id), false);
+    }
+
+    @Override
+    public Task deleteTask(int index) throws BuddyException {
+        return delete(slotOf(index));
+    }
+
+    @Override
+    public Task deleteTaskById(long id) throws BuddyException {
+        return delete(slotOfId(id));
+    }
+
+    /**
+     * Visits one page of the tasks selected by a filter, checking the type and done
+     * columns directly so that only the tasks on the page are ever built.
+     *
+     * @param filter The filter selecting the tasks.
+     * @param skip The number of selected tasks to skip before the page starts.
+     * @param limit The maximum number of selected tasks on the page.
+     * @param visitor Receives each task on the page and its zero-based index in the list.
+     * @return The total number of tasks the filter selects.
+     */
+    @Override
+    public int forEachMatching(TaskFilter filter, int skip, int limit, ObjIntConsumer<Task> visitor) {
+        boolean isAll = filter.isAll();
+        int slot = 0;
+        int index = 0;
+        if (isAll) {
+            if (skip >= size()) {
+                return size();
+            }
+            slot = counter.slotOf(skip);
+            index = skip;
+        }
+        int matchCount = isAll ? skip : 0;
+        int firstSlot = slot;
+        for (; slot < counter.getSlotCount(); slot++) {
+            if (deletedFlags.get(slot)) {
+                continue;
+            }
+            if (filter.matches(doneFlags.get(slot), typeCode(types[slot]))) {
+                if (matchCount >= skip && matchCount - skip < limit) {
+                    visitor.accept(toTask(slot), index);
+                } else if (isAll) {
+                    CommandMetrics.addTasksScanned(slot - firstSlot);
+                    return size();
+                }
+                matchCount++;
+            }
+            index++;
+        }
+        CommandMetrics.addTasksScanned(slot - firstSlot);
+        return matchCount;
+    }
+
+    /**
+     * Finds all tasks whose description contains the keyword, ignoring case.
+     * Pure ASCII descriptions are matched in place in the arena without being decoded.
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching tasks, in list order.
+     */
+    @Override
+    public ArrayList<Task> findTasks(String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        byte[] asciiKeyword = isAscii(lowerKeyword) ? lowerKeyword.getBytes(StandardCharsets.US_ASCII) : null;
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        for (int slot = 0; slot < counter.getSlotCount(); slot++) {
+            if (deletedFlags.get(slot)) {
+                continue;
+            }
+            int handle = descriptionHandles[slot];
+            boolean isMatch = asciiKeyword != null && isAscii(handle)
+                    ? containsIgnoringAsciiCase(handle, asciiKeyword)
+                    : descriptions.read(handle).toLowerCase().contains(lowerKeyword);
+            if (isMatch) {
+                matchingTasks.add(toTask(slot));
+            }
+        }
+        CommandMetrics.addTasksScanned(counter.getSlotCount());
+        return matchingTasks;
+    }
+
+    @Override
+    public ArrayList<Task> getTasksOnDate(LocalDateTime date) {
+        long day = date.toLocalDate().toEpochDay();
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        for (int slot = 0; slot < counter.getSlotCount(); slot++) {
+            if (!deletedFlags.get(slot) && isOnDay(slot, day)) {
+                matchingTasks.add(toTask(slot));
+            }
+        }
+        CommandMetrics.addTasksScanned(counter.getSlotCount());
+        return matchingTasks;
+    }
+
+    /**
+     * Lazily iterates over all deadlines due and all events held between two dates.
+     * The matching slots are found with one scan over the date columns and sorted as
+     * packed primitive keys, but tasks are only built as the iterator reaches them.
+     * The list must not be modified while the iterator is in use.
+     *
+     * @param from The first date of the range; the time of day is ignored.
+     * @param to The last date of the range, inclusive; the time of day is ignored.
+     * @return An iterator over the matching tasks, in chronological order.
+     */
+    @Override
+    public Iterator<Task> getAgenda(LocalDateTime from, LocalDateTime to) {
+        long firstDay = from.toLocalDate().toEpochDay();
+        long lastDay = to.toLocalDate().toEpochDay();
+        int[] matchingSlots = new int[INITIAL_CAPACITY];
+        long[] keys = new long[INITIAL_CAPACITY];
+        int count = 0;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (int slot = 0; slot < counter.getSlotCount(); slot++) {
+            long time = deletedFlags.get(slot) ? Long.MIN_VALUE : agendaTime(slot, firstDay, lastDay);
+            if (time == Long.MIN_VALUE) {
+                continue;
+            }
+            if (count == keys.length) {
+                matchingSlots = Arrays.copyOf(matchingSlots, count * 2);
+                keys = Arrays.copyOf(keys, count * 2);
+            }
+            matchingSlots[count] = slot;
+            keys[count] = time;
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            count++;
+        }
+        CommandMetrics.addTasksScanned(counter.getSlotCount());
+        packAgendaKeys(keys, matchingSlots, count, minTime, maxTime);
+        Arrays.sort(keys, 0, count);
+
+        long[] sortedKeys = keys;
+        int matchCount = count;
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < matchCount;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return toTask((int) sortedKeys[next++]);
+            }
+        };
+    }
+
+    /**
+     * Replaces each time with a key that has the time in the high 32 bits and the slot in
+     * the low 32, so that sorting the keys as plain longs orders the slots by time and,
+     * for equal times, in list order. Times are stored relative to the earliest one, or
+     * as their rank among the distinct times if they span too long for 31 bits.
+     */
+    static void packAgendaKeys(long[] times, int[] slots, int count, long minTime, long maxTime) {
+        if (count > 0 && maxTime - minTime > Integer.MAX_VALUE) {
+            long[] distinctTimes = Arrays.copyOf(times, count);
+            Arrays.sort(distinctTimes);
+            int distinctCount = 1;
+            for (int i = 1; i < count; i++) {
+                if (distinctTimes[i] != distinctTimes[distinctCount - 1]) {
+                    distinctTimes[distinctCount++] = distinctTimes[i];
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                times[i] = Arrays.binarySearch(distinctTimes, 0, distinctCount, times[i]);
+            }
+            minTime = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            times[i] = ((times[i] - minTime) << 32) | slots[i];
+        }
+    }
+
+    private int slotOf(int index) throws BuddyException {
+        if (index < 0 || index >= counter.getLiveCount()) {
+            throw new BuddyException("buddy.data.Task index out of range: " + (index + 1));
+        }
+        return counter.slotOf(index);
+    }
+
+    private int slotOfId(long id) throws BuddyException {
+        int slot = slotsById.getSlot(id);
+        if (slot < 0) {
+            throw new BuddyException("No task with ID #" + id);
+        }
+        return slot;
+    }
+
+    /**
+     * Prepares for a change: the latest snapshot is no longer the current version, and the
+     * descriptions held back for snapshots that have since been dropped are freed. Once no
+     * snapshot is left, the columns can be written in place again.
+     */
+    private void startChange() {
+        latestSnapshot = null;
+        while (!heldDescriptions.isEmpty() && heldDescriptions.peekFirst().isReleasable()) {
+            heldDescriptions.pollFirst().freeFrom(descriptions);
+        }
+        if (heldDescriptions.isEmpty()) {
+            areDoneFlagsShared = false;
+            areDeletedFlagsShared = false;
+        }
+    }
+
+    private int append(byte type, long id, String description, long start, long end, boolean isDone) {
+        startChange();
+        int handle = descriptions.store(description.getBytes(StandardCharsets.UTF_8));
+        int slot = counter.getSlotCount();
+        if (slot == types.length) {
+            int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            descriptionHandles = Arrays.copyOf(descriptionHandles, capacity);
+        }
+
+        // Slots past the end are out of every snapshot's sight, so they are written in place
+        counter.append();
+        types[slot] = type;
+        ids[slot] = id;
+        starts[slot] = start;
+        ends[slot] = end;
+        if (isDone) {
+            doneFlagsForWriting().set(slot);
+        }
+        descriptionHandles[slot] = handle;
+        slotsById.put(id, slot);
+        return slot;
+    }
+
+    private Task setDone(int slot, boolean isDone) {
+        startChange();
+        doneFlagsForWriting().set(slot, isDone);
+        return toTask(slot);
+    }
+
+    private Task delete(int slot) {
+        startChange();
+        Task task = toTask(slot);
+        deletedFlagsForWriting().set(slot);
+        slotsById.remove(ids[slot]);
+        if (heldDescriptions.isEmpty()) {
+            descriptions.free(descriptionHandles[slot]);
+        } else {
+            heldDescriptions.peekLast().add(descriptionHandles[slot]);
+        }
+        counter.kill(slot);
+        if (counter.isWorthCompacting()) {
+            compact();
+        }
+        return task;
+    }
+
+    private BitSet doneFlagsForWriting() {
+        if (areDoneFlagsShared) {
+            doneFlags = copyOf(doneFlags);
+            areDoneFlagsShared = false;
+        }
+        return doneFlags;
+    }
+
+    private BitSet deletedFlagsForWriting() {
+        if (areDeletedFlagsShared) {
+            deletedFlags = copyOf(deletedFlags);
+            areDeletedFlagsShared = false;
+        }
+        return deletedFlags;
+    }
+
+    private static BitSet copyOf(BitSet flags) {
+        // Unlike clone(), or() leaves the shared set untouched
+        BitSet copy = new BitSet();
+        copy.or(flags);
+        return copy;
+    }
+
+    /**
+     * Squeezes the tombstones out of every column in one pass, moving live slots down.
+     * Descriptions stay where they are in the arena; only their handles move.
+     * While a snapshot may still be reading the columns, they are moved into new ones instead.
+     */
+    private void compact() {
+        int slotCount = counter.getSlotCount();
+        boolean isShared = !heldDescriptions.isEmpty();
+        byte[] compactedTypes = isShared ? new byte[types.length] : types;
+        long[] compactedIds = isShared ? new long[ids.length] : ids;
+        long[] compactedStarts = isShared ? new long[starts.length] : starts;
+        long[] compactedEnds = isShared ? new long[ends.length] : ends;
+        int[] compactedHandles = isShared ? new int[descriptionHandles.length] : descriptionHandles;
+        BitSet compactedDoneFlags = new BitSet();
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (deletedFlags.get(slot)) {
+                continue;
+            }
+            compactedHandles[live] = descriptionHandles[slot];
+            compactedTypes[live] = types[slot];
+            compactedIds[live] = ids[slot];
+            compactedStarts[live] = starts[slot];
+            compactedEnds[live] = ends[slot];
+            compactedDoneFlags.set(live, doneFlags.get(slot));
+            slotsById.put(ids[slot], live);
+            live++;
+        }
+        types = compactedTypes;
+        ids = compactedIds;
+        starts = compactedStarts;
+        ends = compactedEnds;
+        descriptionHandles = compactedHandles;
+        doneFlags = compactedDoneFlags;
+        deletedFlags = new BitSet();
+        areDoneFlagsShared = false;
+        areDeletedFlagsShared = false;
+        counter.rebuild(live, slot -> true);
+    }
+
+    /**
+     * Maps a type column value to the code a {@link TaskFilter} selects by.
+     */
+    private static char typeCode(byte type) {
+        switch (type) {
+            case TYPE_DEADLINE:
+                return 'D';
+            case TYPE_EVENT:
+                return 'E';
+            default:
+                return 'T';
+        }
+    }
+
+    private Task toTask(int slot) {
+        return toTask(types[slot], ids[slot], starts[slot], ends[slot], doneFlags.get(slot),
+                descriptions.read(descriptionHandles[slot]));
+    }
+
+    private static Task toTask(byte type, long id, long start, long end, boolean isDone, String description) {
+        Task task;
+        switch (type) {
+            case TYPE_DEADLINE:
+                task = new Deadline(description, toDateTime(start));
+                break;
+            case TYPE_EVENT:
+                task = new Event(description, toDateTime(start), toDateTime(end));
+                break;
+            default:
+                task = new Todo(description);
+                break;
+        }
+        task.setId(id);
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Checks whether the task in a slot falls on a day, with the same rules as
+     * {@link Deadline#isOnDate} and {@link Event#isOnDate}.
+     */
+    private boolean isOnDay(int slot, long day) {
+        if (types[slot] == TYPE_DEADLINE) {
+            return toDay(starts[slot]) == day;
+        }
+        if (types[slot] == TYPE_EVENT) {
+            long fromDay = toDay(starts[slot]);
+            long toDay = toDay(ends[slot]);
+            return fromDay == day || toDay == day || (day > fromDay && day < toDay);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the time a task is listed under in an agenda, matching {@link DateIndex}.
+     *
+     * @return The time in epoch minutes, or {@link Long#MIN_VALUE} if the task is not in the range.
+     */
+    private long agendaTime(int slot, long firstDay, long lastDay) {
+        if (types[slot] == TYPE_DEADLINE) {
+            long day = toDay(starts[slot]);
+            return day >= firstDay && day <= lastDay ? starts[slot] : Long.MIN_VALUE;
+        }
+        if (types[slot] != TYPE_EVENT) {
+            return Long.MIN_VALUE;
+        }
+        long fromDay = toDay(starts[slot]);
+        long toDay = toDay(ends[slot]);
+        if (toDay >= fromDay) {
+            return fromDay <= lastDay && toDay >= firstDay ? starts[slot] : Long.MIN_VALUE;
+        }
+        // An event that ends on a day before it starts only falls on its two end days
+        if (toDay >= firstDay && toDay <= lastDay) {
+            return ends[slot];
+        }
+        return fromDay >= firstDay && fromDay <= lastDay ? starts[slot] : Long.MIN_VALUE;
+    }
+
+    private boolean containsIgnoringAsciiCase(int handle, byte[] lowerKeyword) {
+        int length = descriptions.length(handle);
+        for (int i = 0; i + lowerKeyword.length <= length; i++) {
+            int j = 0;
+            while (j < lowerKeyword.length && toLowerAscii(descriptions.byteAt(handle, i + j)) == lowerKeyword[j]) {
+                j++;
+            }
+            if (j == lowerKeyword.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private boolean isAscii(int handle) {
+        int length = descriptions.length(handle);
+        for (int i = 0; i < length; i++) {
+            if (descriptions.byteAt(handle, i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long toDay(long epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime toDateTime(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Read-only view of the tasks that builds each task as it is reached.
+     */
+    private class TaskView extends AbstractList<Task> implements RandomAccess {
+        @Override
+        public Task get(int index) {
+            return toTask(counter.slotOf(index));
+        }
+
+        @Override
+        public int size() {
+            return counter.getLiveCount();
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private int nextSlot = skipTombstones(0);
+
+                @Override
+                public boolean hasNext() {
+                    return nextSlot < counter.getSlotCount();
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = toTask(nextSlot);
+                    nextSlot = skipTombstones(nextSlot + 1);
+                    return task;
+                }
+            };
+        }
+
+        private int skipTombstones(int slot) {
+            return Math.min(deletedFlags.nextClearBit(slot), counter.getSlotCount());
+        }
+    }
+
+    /**
+     * Read-only list of the tasks in a {@link CompactTaskList} at the moment it was taken,
+     * which builds each task as it is reached. It shares the list's columns, but a change
+     * to the list never writes a slot the snapshot can see, so it stays as it was.
+     * While the list has tombstones, finding a task by position takes a directory of the
+     * live slots, which is built on first use.
+     */
+    public static final class Snapshot extends AbstractList<Task> implements RandomAccess {
+        private final byte[] types;
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final BitSet doneFlags;
+        private final BitSet deletedFlags;
+        private final int[] descriptionHandles;
+        private final int slotCount;
+        private final int liveCount;
+        private final DescriptionArena descriptions;
+        private volatile int[] liveBeforeWords;
+
+        private Snapshot(CompactTaskList tasks) {
+            this.types = tasks.types;
+            this.ids = tasks.ids;
+            this.starts = tasks.starts;
+            this.ends = tasks.ends;
+            this.doneFlags = tasks.doneFlags;
+            this.deletedFlags = tasks.deletedFlags;
+            this.descriptionHandles = tasks.descriptionHandles;
+            this.slotCount = tasks.counter.getSlotCount();
+            this.liveCount = tasks.counter.getLiveCount();
+            this.descriptions = tasks.descriptions;
+        }
+
+        @Override
+        public int size() {
+            return liveCount;
+        }
+
+        @Override
+        public Task get(int index) {
+            if (index < 0 || index >= liveCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + liveCount);
+            }
+            return toTask(slotOf(index));
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private int nextSlot = skipTombstones(0);
+
+                @Override
+                public boolean hasNext() {
+                    return nextSlot < slotCount;
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = toTask(nextSlot);
+                    nextSlot = skipTombstones(nextSlot + 1);
+                    return task;
+                }
+            };
+        }
+
+        private int skipTombstones(int slot) {
+            return Math.min(deletedFlags.nextClearBit(slot), slotCount);
+        }
+
+        /**
+         * Finds the slot of a live task through the number of live slots before each
+         * 64-slot word, then steps over the tombstones within its word.
+         */
+        private int slotOf(int index) {
+            if (liveCount == slotCount) {
+                return index;
+            }
+            int[] liveBefore = getLiveBeforeWords();
+            int low = 0;
+            int high = liveBefore.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (liveBefore[middle] <= index) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            int slot = skipTombstones(low * Long.SIZE);
+            for (int remaining = index - liveBefore[low]; remaining > 0; remaining--) {
+                slot = skipTombstones(slot + 1);
+            }
+            return slot;
+        }
+
+        private int[] getLiveBeforeWords() {
+            int[] liveBefore = liveBeforeWords;
+            if (liveBefore == null) {
+                liveBefore = new int[(slotCount + Long.SIZE - 1) / Long.SIZE];
+                int deleted = 0;
+                int nextDeleted = deletedFlags.nextSetBit(0);
+                for (int word = 0; word < liveBefore.length; word++) {
+                    int firstSlot = word * Long.SIZE;
+                    while (nextDeleted >= 0 && nextDeleted < firstSlot) {
+                        deleted++;
+                        nextDeleted = deletedFlags.nextSetBit(nextDeleted + 1);
+                    }
+                    liveBefore[word] = firstSlot - deleted;
+                }
+                liveBeforeWords = liveBefore;
+            }
+            return liveBefore;
+        }
+
+        private Task toTask(int slot) {
+            try {
+                return CompactTaskList.toTask(types[slot], ids[slot], starts[slot], ends[slot],
+                        doneFlags.get(slot), descriptions.read(descriptionHandles[slot]));
+            } finally {
+                // The description may only be freed once this snapshot is unreachable
+                Reference.reachabilityFence(this);
+            }
+        }
+    }
+
+    /**
+     * Descriptions freed while a snapshot, or one taken before it, may still read them.
+     */
+    private static class HeldDescriptions {
+        private final WeakReference<Snapshot> snapshot;
+        private int[] handles;
+        private int count;
+
+        HeldDescriptions(Snapshot snapshot) {
+            this.snapshot = new WeakReference<>(snapshot);
+        }
+
+        void add(int handle) {
+            if (handles == null) {
+                handles = new int[INITIAL_CAPACITY];
+            } else if (count == handles.length) {
+                handles = Arrays.copyOf(handles, count * 2);
+            }
+            handles[count++] = handle;
+        }
+
+        /**
+         * Checks whether the snapshot is gone. The holders are released in the order their
+         * snapshots were taken, so the earlier snapshots are gone as well by then.
+         */
+        boolean isReleasable() {
+            return snapshot.get() == null;
+        }
+
+        void freeFrom(DescriptionArena descriptions) {
+            for (int i = 0; i < count; i++) {
+                descriptions.free(handles[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package buddy.data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import buddy.util.BuddyException;
+import buddy.util.CommandMetrics;
+
+/**
+ * Task list that can be shared by threads running commands at the same time.
+ * It wraps another task list and guards it with a {@link StampedLock}: changes,
+ * including marking a task as done, take the write lock for as long as the change takes.
+ * Reads of a single position first run without any lock and are only repeated under the
+ * read lock if a change happened in the meantime, while lookups by ID and searches, which
+ * walk structures a change may be rearranging, always run under the read lock.
+ *
+ * <p>Listings, saves and agendas work on a snapshot instead, pinned in O(1) time. A
+ * {@link CompactTaskList} takes snapshots of its own columns; for any other list, this list
+ * keeps the tasks in order in {@link TaskChunks} as well and pins an immutable version of them.
+ * Visiting a snapshot takes no lock, so writers never wait for a long listing, and the
+ * snapshot's memory goes as soon as its last reader drops it.
+ *
+ * <p>Reads must never change the wrapped list, so its indexes are all built when this
+ * list is created, rather than lazily by the first lookup that needs them.
+ */
+public class ConcurrentTaskList extends TaskList {
+    private static final int INITIAL_AGENDA_CAPACITY = 16;
+
+    private final TaskList tasks;
+    private final CompactTaskList compactTasks;
+    private final TaskChunks chunks;
+    private final StampedLock lock = new StampedLock();
+    private final ReentrantLock writerGate = new ReentrantLock(true);
+
+    /**
+     * Creates a thread-safe task list around another task list, building its indexes now.
+     * The wrapped list must not be used directly afterwards.
+     *
+     * @param tasks The task list to guard.
+     */
+    public ConcurrentTaskList(TaskList tasks) {
+        super();
+        this.tasks = tasks;
+        tasks.buildIndexes();
+        this.compactTasks = tasks instanceof CompactTaskList ? (CompactTaskList) tasks : null;
+        this.chunks = compactTasks == null ? new TaskChunks(tasks.getTasks()) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The tasks are a snapshot, which stays the same while the list changes.
+     */
+    @Override
+    public List<Task> getTasks() {
+        return snapshot();
+    }
+
+    /**
+     * Takes an immutable snapshot of the tasks in O(1) time.
+     *
+     * @return The tasks as they are now, in list order.
+     */
+    public List<Task> snapshot() {
+        // The read lock keeps writers out while the current version is marked as shared
+        long stamp = lockForReading();
+        try {
+            return compactTasks != null ? compactTasks.snapshot() : chunks.snapshot();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = tasks.size();
+        if (lock.validate(stamp)) {
+            return size;
+        }
+        stamp = lockForReading();
+        try {
+            return tasks.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void reserveIdsBelow(long nextId) {
+        long stamp = lockForWriting();
+        try {
+            tasks.reserveIdsBelow(nextId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task getTask(int index) throws BuddyException {
+        return readOptimistically(() -> tasks.getTask(index));
+    }
+
+    @Override
+    public Task getTaskById(long id) throws BuddyException {
+        return read(() -> tasks.getTaskById(id));
+    }
+
+    @Override
+    public int getIndexById(long id) throws BuddyException {
+        return read(() -> tasks.getIndexById(id));
+    }
+
+    @Override
+    public Task addTodo(String description) {
+        long stamp = lockForWriting();
+        try {
+            return added(tasks.addTodo(description));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task addDeadline(String description, LocalDateTime by) {
+        long stamp = lockForWriting();
+        try {
+            return added(tasks.addDeadline(description, by));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task addEvent(String description, LocalDateTime from, LocalDateTime to) {
+        long stamp = lockForWriting();
+        try {
+            return added(tasks.addEvent(description, from, to));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task markTaskAsDone(int index) throws BuddyException {
+        return write(() -> replaced(index, tasks.markTaskAsDone(index)));
+    }
+
+    @Override
+    public Task markTaskAsDoneById(long id) throws BuddyException {
+        return write(() -> markById(id, true));
+    }
+
+    @Override
+    public Task markTaskAsUndone(int index) throws BuddyException {
+        return write(() -> replaced(index, tasks.markTaskAsUndone(index)));
+    }
+
+    @Override
+    public Task markTaskAsUndoneById(long id) throws BuddyException {
+        return write(() -> markById(id, false));
+    }
+
+    @Override
+    public Task deleteTask(int index) throws BuddyException {
+        return write(() -> removed(index, tasks.deleteTask(index)));
+    }
+
+    @Override
+    public Task deleteTaskById(long id) throws BuddyException {
+        return write(() -> removeById(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The tasks are visited on a snapshot without holding any lock, so the list may change
+     * meanwhile without affecting the listing.
+     */
+    @Override
+    public int forEachMatching(TaskFilter filter, int skip, int limit, ObjIntConsumer<Task> visitor) {
+        return forEachMatching(snapshot(), filter, skip, limit, visitor);
+    }
+
+    @Override
+    public ArrayList<Task> findTasks(String keyword) {
+        return search(() -> tasks.findTasks(keyword));
+    }
+
+    @Override
+    public ArrayList<Task> getTasksOnDate(LocalDateTime date) {
+        return search(() -> tasks.getTasksOnDate(date));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The agenda is taken from a snapshot without holding any lock, so the list may change
+     * while the iterator is in use. Matching positions are sorted as packed primitive keys,
+     * as in {@link CompactTaskList}, and tasks are only looked up as the iterator reaches them.
+     */
+    @Override
+    public Iterator<Task> getAgenda(LocalDateTime from, LocalDateTime to) {
+        List<Task> snapshot = snapshot();
+        long firstDay = from.toLocalDate().toEpochDay();
+        long lastDay = to.toLocalDate().toEpochDay();
+        int[] positions = new int[INITIAL_AGENDA_CAPACITY];
+        long[] keys = new long[INITIAL_AGENDA_CAPACITY];
+        int count = 0;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        int index = 0;
+        for (Task task : snapshot) {
+            long time = DateIndex.agendaTime(task, firstDay, lastDay);
+            if (time != Long.MIN_VALUE) {
+                if (count == keys.length) {
+                    positions = Arrays.copyOf(positions, count * 2);
+                    keys = Arrays.copyOf(keys, count * 2);
+                }
+                positions[count] = index;
+                keys[count] = time;
+                minTime = Math.min(minTime, time);
+                maxTime = Math.max(maxTime, time);
+                count++;
+            }
+            index++;
+        }
+        CommandMetrics.addTasksScanned(snapshot.size());
+        CompactTaskList.packAgendaKeys(keys, positions, count, minTime, maxTime);
+        Arrays.sort(keys, 0, count);
+
+        long[] sortedKeys = keys;
+        int matchCount = count;
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < matchCount;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return snapshot.get((int) sortedKeys[next++]);
+            }
+        };
+    }
+
+    @Override
+    public void buildIndexes() {
+        long stamp = lockForWriting();
+        try {
+            tasks.buildIndexes();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private Task added(Task task) {
+        if (chunks != null) {
+            chunks.add(task);
+        }
+        return task;
+    }
+
+    /**
+     * Puts a changed task back into the snapshot chunks, since marking a task replaces it
+     * with a copy instead of changing it in place.
+     */
+    private Task replaced(int index, Task task) {
+        if (chunks != null) {
+            chunks.set(index, task);
+        }
+        return task;
+    }
+
+    private Task removed(int index, Task task) {
+        if (chunks != null) {
+            chunks.remove(index);
+        }
+        return task;
+    }
+
+    /**
+     * Marks a task by ID, having the wrapped list report the task's position for the
+     * snapshot chunks rather than looking it up a second time.
+     */
+    private Task markById(long id, boolean isDone) throws BuddyException {
+        if (chunks == null) {
+            return isDone ? tasks.markTaskAsDoneById(id) : tasks.markTaskAsUndoneById(id);
+        }
+        return tasks.setDoneById(id, isDone, (task, index) -> chunks.set(index, task));
+    }
+
+    private Task removeById(long id) throws BuddyException {
+        if (chunks == null) {
+            return tasks.deleteTaskById(id);
+        }
+        return tasks.deleteById(id, (task, index) -> chunks.remove(index));
+    }
+
+    /**
+     * Runs a lookup without locking and keeps its result if no change happened meanwhile.
+     * Otherwise, including when the lookup failed on a list caught half-way through a change,
+     * the lookup is run again under the read lock, and only the tasks it scans then are counted.
+     */
+    private <T> T readOptimistically(Operation<T> lookup) throws BuddyException {
+        long tasksScanned = CommandMetrics.getTasksScanned();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = lookup.run();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (BuddyException | RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        CommandMetrics.rollBackTasksScanned(tasksScanned);
+        stamp = lockForReading();
+        try {
+            return lookup.run();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T read(Operation<T> lookup) throws BuddyException {
+        long stamp = lockForReading();
+        try {
+            return lookup.run();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a search under the read lock. Unlike a single read, a search may walk an index
+     * for a long time, and doing that optimistically could follow a change half-way through.
+     */
+    private <T> T search(Supplier<T> search) {
+        long stamp = lockForReading();
+        try {
+            return search.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T write(Operation<T> change) throws BuddyException {
+        long stamp = lockForWriting();
+        try {
+            return change.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Takes the write lock, holding the writer gate while waiting for it.
+     */
+    private long lockForWriting() {
+        writerGate.lock();
+        try {
+            return lock.writeLock();
+        } finally {
+            writerGate.unlock();
+        }
+    }
+
+    /**
+     * Takes the read lock, first blocking on the writer gate if a writer is waiting.
+     * A {@link StampedLock} lets new readers in ahead of a waiting writer, so a steady
+     * stream of searches could otherwise keep every change out.
+     */
+    private long lockForReading() {
+        if (writerGate.isLocked()) {
+            writerGate.lock();
+            writerGate.unlock();
+        }
+        return lock.readLock();
+    }
+
+    /**
+     * An operation on the wrapped list.
+     */
+    private interface Operation<T> {
+        T run() throws BuddyException;
+    }
+}
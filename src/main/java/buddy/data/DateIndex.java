@@ -0,0 +1,288 @@
+package buddy.data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Index of the times at which deadlines and events occur, in minutes since the epoch.
+ * Deadlines are kept in a map sorted by time, and events in an {@link IntervalTree}
+ * over their {@code [from, to]} times, so looking up a day or a range of days never
+ * scans the whole list.
+ * Every indexed task remembers the order it was added in, so results can also be
+ * returned in task list order.
+ */
+public class DateIndex {
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private final TreeMap<Long, ArrayList<Task>> tasksByMinute = new TreeMap<>();
+    private final IntervalTree<Task> events = new IntervalTree<>();
+    private final IdentityHashMap<Task, Long> ordinals = new IdentityHashMap<>();
+    private long nextOrdinal;
+
+    /**
+     * Adds a task to the index. Tasks without dates are ignored.
+     *
+     * @param task The task to index.
+     */
+    public void add(Task task) {
+        if (task instanceof Deadline) {
+            ordinals.put(task, nextOrdinal++);
+            addAtMinute(epochMinute(((Deadline) task).getBy()), task);
+        } else if (task instanceof Event) {
+            long ordinal = nextOrdinal++;
+            ordinals.put(task, ordinal);
+            Event event = (Event) task;
+            long from = epochMinute(event.getFrom());
+            long to = epochMinute(event.getTo());
+            if (isInverted(from, to)) {
+                // An event that ends on a day before it starts only falls on its two end days
+                addAtMinute(from, task);
+                addAtMinute(to, task);
+            } else {
+                events.insert(from, Math.max(from, to), ordinal, task);
+            }
+        }
+    }
+
+    /**
+     * Removes a task from the index, if it is indexed.
+     *
+     * @param task The task to remove.
+     */
+    public void remove(Task task) {
+        Long ordinal = ordinals.remove(task);
+        if (ordinal == null) {
+            return;
+        }
+        if (task instanceof Deadline) {
+            removeAtMinute(epochMinute(((Deadline) task).getBy()), task);
+        } else {
+            Event event = (Event) task;
+            long from = epochMinute(event.getFrom());
+            long to = epochMinute(event.getTo());
+            if (isInverted(from, to)) {
+                removeAtMinute(from, task);
+                removeAtMinute(to, task);
+            } else {
+                events.remove(from, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Puts a copy of an indexed task in its place, keeping its position among the tasks at the same time.
+     *
+     * @param task The indexed task.
+     * @param replacement The task to index instead, with the same dates.
+     */
+    public void replace(Task task, Task replacement) {
+        Long ordinal = ordinals.remove(task);
+        if (ordinal == null) {
+            return;
+        }
+        ordinals.put(replacement, ordinal);
+        if (task instanceof Deadline) {
+            replaceAtMinute(epochMinute(((Deadline) task).getBy()), task, replacement);
+        } else {
+            Event event = (Event) task;
+            long from = epochMinute(event.getFrom());
+            long to = epochMinute(event.getTo());
+            if (isInverted(from, to)) {
+                replaceAtMinute(from, task, replacement);
+                replaceAtMinute(to, task, replacement);
+            } else {
+                events.remove(from, ordinal);
+                events.insert(from, Math.max(from, to), ordinal, replacement);
+            }
+        }
+    }
+
+    /**
+     * Finds all deadlines due on the given day and all events that span it.
+     *
+     * @param epochDay The day to look up, as a count of days since the epoch.
+     * @return The matching tasks, in the order they were added.
+     */
+    public ArrayList<Task> findOnDay(long epochDay) {
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        Iterator<Task> iterator = iterateDays(epochDay, epochDay);
+        while (iterator.hasNext()) {
+            matchingTasks.add(iterator.next());
+        }
+        matchingTasks.sort(Comparator.comparingLong(ordinals::get));
+        return matchingTasks;
+    }
+
+    /**
+     * Lazily iterates over all deadlines due and all events held within a range of days.
+     * Tasks come in chronological order of their due or start time, and each task is
+     * only looked up when the iterator reaches it.
+     * The index must not be modified while the iterator is in use.
+     *
+     * @param fromEpochDay The first day of the range, as a count of days since the epoch.
+     * @param toEpochDay The last day of the range, as a count of days since the epoch.
+     * @return An iterator over the matching tasks.
+     */
+    public Iterator<Task> iterateDays(long fromEpochDay, long toEpochDay) {
+        return new RangeIterator(fromEpochDay * MINUTES_PER_DAY, (toEpochDay + 1) * MINUTES_PER_DAY - 1);
+    }
+
+    private void addAtMinute(long epochMinute, Task task) {
+        tasksByMinute.computeIfAbsent(epochMinute, minute -> new ArrayList<>()).add(task);
+    }
+
+    private void removeAtMinute(long epochMinute, Task task) {
+        ArrayList<Task> atMinute = tasksByMinute.get(epochMinute);
+        if (atMinute != null) {
+            atMinute.remove(task);
+            if (atMinute.isEmpty()) {
+                tasksByMinute.remove(epochMinute);
+            }
+        }
+    }
+
+    /**
+     * Gets the time a task is listed under in an agenda of a range of days, for agendas
+     * that scan a list rather than use an index. An event that ends on a day before it
+     * starts is listed once, under the first of its two end days in the range.
+     *
+     * @param task The task to place.
+     * @param firstDay The first day of the range, as a count of days since the epoch.
+     * @param lastDay The last day of the range, inclusive.
+     * @return The time in epoch minutes, or {@link Long#MIN_VALUE} if the task is not in the range.
+     */
+    static long agendaTime(Task task, long firstDay, long lastDay) {
+        if (task instanceof Deadline) {
+            long by = epochMinute(((Deadline) task).getBy());
+            long day = Math.floorDiv(by, MINUTES_PER_DAY);
+            return day >= firstDay && day <= lastDay ? by : Long.MIN_VALUE;
+        }
+        if (!(task instanceof Event)) {
+            return Long.MIN_VALUE;
+        }
+        Event event = (Event) task;
+        long from = epochMinute(event.getFrom());
+        long to = epochMinute(event.getTo());
+        long fromDay = Math.floorDiv(from, MINUTES_PER_DAY);
+        long toDay = Math.floorDiv(to, MINUTES_PER_DAY);
+        if (!isInverted(from, to)) {
+            return fromDay <= lastDay && toDay >= firstDay ? from : Long.MIN_VALUE;
+        }
+        if (toDay >= firstDay && toDay <= lastDay) {
+            return to;
+        }
+        return fromDay >= firstDay && fromDay <= lastDay ? from : Long.MIN_VALUE;
+    }
+
+    private void replaceAtMinute(long epochMinute, Task task, Task replacement) {
+        ArrayList<Task> atMinute = tasksByMinute.get(epochMinute);
+        if (atMinute != null) {
+            atMinute.set(atMinute.indexOf(task), replacement);
+        }
+    }
+
+    private static boolean isInverted(long fromMinute, long toMinute) {
+        return Math.floorDiv(toMinute, MINUTES_PER_DAY) < Math.floorDiv(fromMinute, MINUTES_PER_DAY);
+    }
+
+    private static long epochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Merges the tasks stored at single times with the events from the interval tree,
+     * both of which are already in chronological order.
+     */
+    private class RangeIterator implements Iterator<Task> {
+        private final long firstMinute;
+        private final long lastMinute;
+        private final Iterator<Map.Entry<Long, ArrayList<Task>>> minutes;
+        private final Iterator<Task> spanningEvents;
+        private Iterator<Task> atMinute;
+        private long currentMinute;
+        private Task nextAtMinute;
+        private long nextAtMinuteTime;
+        private Task nextEvent;
+
+        private RangeIterator(long firstMinute, long lastMinute) {
+            this.firstMinute = firstMinute;
+            this.lastMinute = lastMinute;
+            this.minutes = tasksByMinute.subMap(firstMinute, true, lastMinute, true).entrySet().iterator();
+            this.spanningEvents = events.iterateOverlapping(firstMinute, lastMinute);
+            advanceAtMinute();
+            advanceEvent();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextAtMinute != null || nextEvent != null;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Task task;
+            if (nextEvent == null || (nextAtMinute != null && isBefore(nextAtMinuteTime, nextAtMinute, nextEvent))) {
+                task = nextAtMinute;
+                advanceAtMinute();
+            } else {
+                task = nextEvent;
+                advanceEvent();
+            }
+            return task;
+        }
+
+        private boolean isBefore(long time, Task task, Task event) {
+            long eventTime = epochMinute(((Event) event).getFrom());
+            if (time != eventTime) {
+                return time < eventTime;
+            }
+            return ordinals.get(task) < ordinals.get(event);
+        }
+
+        private void advanceAtMinute() {
+            nextAtMinute = null;
+            while (true) {
+                while (atMinute == null || !atMinute.hasNext()) {
+                    if (!minutes.hasNext()) {
+                        return;
+                    }
+                    Map.Entry<Long, ArrayList<Task>> entry = minutes.next();
+                    currentMinute = entry.getKey();
+                    atMinute = entry.getValue().iterator();
+                }
+                Task task = atMinute.next();
+                if (!isSecondEndInRange(task)) {
+                    nextAtMinute = task;
+                    nextAtMinuteTime = currentMinute;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Checks whether this is the later end of an inverted event whose earlier end
+         * was already returned.
+         */
+        private boolean isSecondEndInRange(Task task) {
+            if (!(task instanceof Event)) {
+                return false;
+            }
+            long to = epochMinute(((Event) task).getTo());
+            return to != currentMinute && to >= firstMinute && to <= lastMinute;
+        }
+
+        private void advanceEvent() {
+            nextEvent = spanningEvents.hasNext() ? spanningEvents.next() : null;
+        }
+    }
+}
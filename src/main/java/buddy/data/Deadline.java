@@ -2,7 +2,7 @@ package buddy.data;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import buddy.util.FastDateParser;
 
 /**
  * Represents a task with a deadline in the Buddy application.
@@ -11,8 +11,8 @@ import java.time.format.DateTimeParseException;
  */
 public class Deadline extends Task {
     protected LocalDateTime by;
-    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern("d/M/yyyy HHmm");
-    private static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
+    // Formatted on first display; the deadline never changes afterwards
+    private String byForDisplay;
     private static final DateTimeFormatter STORAGE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
 
     /**
@@ -39,26 +39,32 @@ public class Deadline extends Task {
         this.by = by;
     }
 
+    /**
+     * Creates a new Deadline task with a description that is decoded lazily.
+     *
+     * @param encodedDescription The UTF-8 bytes of the description.
+     * @param by The deadline date and time.
+     */
+    public Deadline(byte[] encodedDescription, LocalDateTime by) {
+        super(encodedDescription);
+        this.by = by;
+    }
+
     /**
      * Parses a date/time string into a LocalDateTime object.
-     * Tries multiple formats for flexibility.
+     * Accepts both the input format and the ISO format used in the data file.
      *
      * @param dateTimeString The date/time string to parse.
      * @return The parsed LocalDateTime.
      */
     private LocalDateTime parseDateTime(String dateTimeString) {
-        try {
-            return LocalDateTime.parse(dateTimeString, INPUT_FORMATTER);
-        } catch (DateTimeParseException e) {
-            try {
-                // Try to parse as ISO format (for loading from file)
-                return LocalDateTime.parse(dateTimeString, STORAGE_FORMATTER);
-            } catch (DateTimeParseException e2) {
-                System.out.println("Warning: Could not parse date '" + dateTimeString +
-                        "'. Using current date and time instead.");
-                return LocalDateTime.now();
-            }
+        LocalDateTime dateTime = FastDateParser.parse(dateTimeString);
+        if (dateTime == null) {
+            System.out.println("Warning: Could not parse date '" + dateTimeString +
+                    "'. Using current date and time instead.");
+            return LocalDateTime.now();
         }
+        return dateTime;
     }
 
     /**
@@ -80,14 +86,21 @@ public class Deadline extends Task {
     }
 
     /**
-     * Returns a string representation of this Deadline task.
+     * Appends the string representation of this Deadline task to a buffer.
      * The string includes a [D] prefix, the completion status, description, and deadline.
      *
-     * @return A formatted string representing this Deadline task.
+     * @param buffer The buffer to append to.
+     * @return The same buffer.
      */
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + " (by: " + by.format(DISPLAY_FORMATTER) + ")";
+    public StringBuilder appendTo(StringBuilder buffer) {
+        String byText = byForDisplay;
+        if (byText == null) {
+            // Formatting twice from racing threads is harmless, both get equal strings
+            byText = DisplayDateCache.format(by);
+            byForDisplay = byText;
+        }
+        return super.appendTo(buffer.append("[D]")).append(" (by: ").append(byText).append(')');
     }
 
     /**
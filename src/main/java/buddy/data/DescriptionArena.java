@@ -0,0 +1,206 @@
+package buddy.data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Allocator for UTF-8 task descriptions in large slabs of memory, either on the heap
+ * or off it in direct buffers.
+ * Each description is stored as a 4-byte length followed by its bytes, in a block whose
+ * size is rounded up to a size class. Freed blocks go on a free list for their class and
+ * are handed out again before the slabs grow, so deleting tasks returns their memory.
+ * Blocks are addressed by int handles counting 8-byte units, which is all a task needs
+ * to keep, and off-heap slabs keep description bytes out of the garbage collector's way
+ * entirely.
+ *
+ * <p>The arena is changed by one thread at a time, but other threads may read blocks
+ * meanwhile, as long as those blocks are not freed until they are done with them.
+ */
+public class DescriptionArena {
+    private static final int UNIT_SHIFT = 3;
+    private static final int SLAB_SHIFT = 20;
+    private static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+    private static final int UNITS_PER_SLAB_SHIFT = SLAB_SHIFT - UNIT_SHIFT;
+    private static final int UNIT_MASK = (1 << UNITS_PER_SLAB_SHIFT) - 1;
+    private static final int MAX_SLABS = 1 << (31 - UNITS_PER_SLAB_SHIFT);
+    private static final int LENGTH_BYTES = 4;
+    private static final int MAX_DESCRIPTION_LENGTH = (1 << 30) - LENGTH_BYTES;
+    private static final int SMALL_CLASS_LIMIT = 512;
+    private static final int SMALL_CLASS_COUNT = SMALL_CLASS_LIMIT >> UNIT_SHIFT;
+    private static final int CLASS_COUNT = SMALL_CLASS_COUNT + 32;
+    private static final int INITIAL_SLAB_SLOTS = 4;
+
+    private final boolean isOffHeap;
+    // Replaced rather than grown in place, so a reader always sees a fully filled-in table
+    private volatile ByteBuffer[] slabs = new ByteBuffer[INITIAL_SLAB_SLOTS];
+    private int slabCount;
+    private final int[][] freeLists = new int[CLASS_COUNT][];
+    private final int[] freeCounts = new int[CLASS_COUNT];
+    private ByteBuffer currentSlab;
+    private int currentPosition;
+    private long bytesInUse;
+
+    /**
+     * Creates an empty arena.
+     *
+     * @param isOffHeap Whether to allocate slabs as direct buffers outside the Java heap.
+     */
+    public DescriptionArena(boolean isOffHeap) {
+        this.isOffHeap = isOffHeap;
+    }
+
+    /**
+     * Checks whether this arena keeps descriptions outside the Java heap.
+     *
+     * @return true if slabs are direct buffers, false otherwise.
+     */
+    public boolean isOffHeap() {
+        return isOffHeap;
+    }
+
+    /**
+     * Gets the number of bytes taken by the blocks currently in use.
+     *
+     * @return The bytes in use, including length prefixes and rounding.
+     */
+    public long getBytesInUse() {
+        return bytesInUse;
+    }
+
+    /**
+     * Gets the number of bytes reserved for slabs.
+     *
+     * @return The total size of all slabs.
+     */
+    public long getBytesReserved() {
+        long reserved = 0;
+        for (int i = 0; i < slabCount; i++) {
+            reserved += slabs[i].capacity();
+        }
+        return reserved;
+    }
+
+    /**
+     * Stores a description.
+     *
+     * @param bytes The UTF-8 bytes of the description.
+     * @return The handle to read or free the description with.
+     * @throws IllegalStateException If the description is too long or the arena has no room left.
+     */
+    public int store(byte[] bytes) {
+        if (bytes.length > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalStateException("Description too long: " + bytes.length + " bytes");
+        }
+        int sizeClass = classOf(LENGTH_BYTES + bytes.length);
+        int blockSize = blockSizeOf(sizeClass);
+        int handle = freeCounts[sizeClass] > 0
+                ? freeLists[sizeClass][--freeCounts[sizeClass]]
+                : allocate(blockSize);
+        ByteBuffer slab = slabOf(handle);
+        int position = positionOf(handle);
+        slab.putInt(position, bytes.length);
+        slab.put(position + LENGTH_BYTES, bytes);
+        bytesInUse += blockSize;
+        return handle;
+    }
+
+    /**
+     * Reads a description back.
+     *
+     * @param handle The handle returned when the description was stored.
+     * @return The description.
+     */
+    public String read(int handle) {
+        ByteBuffer slab = slabOf(handle);
+        int position = positionOf(handle);
+        byte[] bytes = new byte[slab.getInt(position)];
+        slab.get(position + LENGTH_BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the length of a stored description in bytes.
+     *
+     * @param handle The handle of the description.
+     * @return The number of UTF-8 bytes.
+     */
+    public int length(int handle) {
+        return slabOf(handle).getInt(positionOf(handle));
+    }
+
+    /**
+     * Gets one byte of a stored description.
+     *
+     * @param handle The handle of the description.
+     * @param index The zero-based index of the byte, less than {@link #length(int)}.
+     * @return The byte.
+     */
+    public byte byteAt(int handle, int index) {
+        return slabOf(handle).get(positionOf(handle) + LENGTH_BYTES + index);
+    }
+
+    /**
+     * Frees a description so its block can be reused.
+     *
+     * @param handle The handle of the description, which must not be used afterwards.
+     */
+    public void free(int handle) {
+        int sizeClass = classOf(LENGTH_BYTES + length(handle));
+        if (freeLists[sizeClass] == null) {
+            freeLists[sizeClass] = new int[16];
+        } else if (freeCounts[sizeClass] == freeLists[sizeClass].length) {
+            freeLists[sizeClass] = Arrays.copyOf(freeLists[sizeClass], freeCounts[sizeClass] * 2);
+        }
+        freeLists[sizeClass][freeCounts[sizeClass]++] = handle;
+        bytesInUse -= blockSizeOf(sizeClass);
+    }
+
+    /**
+     * Carves a new block off the current slab, starting a new slab if it does not fit.
+     * Blocks larger than a slab get a slab of their own.
+     */
+    private int allocate(int blockSize) {
+        if (currentSlab == null || currentPosition + blockSize > currentSlab.capacity()) {
+            if (slabCount == MAX_SLABS) {
+                throw new IllegalStateException("Description arena is full");
+            }
+            int slabSize = Math.max(SLAB_SIZE, blockSize);
+            currentSlab = isOffHeap ? ByteBuffer.allocateDirect(slabSize) : ByteBuffer.allocate(slabSize);
+            currentPosition = 0;
+            ByteBuffer[] table = slabCount < slabs.length ? slabs : Arrays.copyOf(slabs, slabCount * 2);
+            table[slabCount++] = currentSlab;
+            slabs = table;
+        }
+        int handle = ((slabCount - 1) << UNITS_PER_SLAB_SHIFT) | (currentPosition >>> UNIT_SHIFT);
+        currentPosition += blockSize;
+        return handle;
+    }
+
+    private ByteBuffer slabOf(int handle) {
+        return slabs[handle >>> UNITS_PER_SLAB_SHIFT];
+    }
+
+    private static int positionOf(int handle) {
+        return (handle & UNIT_MASK) << UNIT_SHIFT;
+    }
+
+    /**
+     * Maps a block size to its size class: 8-byte steps up to {@value #SMALL_CLASS_LIMIT}
+     * bytes, where almost all descriptions fall, and powers of two above that.
+     */
+    private static int classOf(int size) {
+        if (size <= SMALL_CLASS_LIMIT) {
+            return ((size + 7) >> UNIT_SHIFT) - 1;
+        }
+        int exponent = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return SMALL_CLASS_COUNT + exponent - Integer.numberOfTrailingZeros(SMALL_CLASS_LIMIT) - 1;
+    }
+
+    private static int blockSizeOf(int sizeClass) {
+        if (sizeClass < SMALL_CLASS_COUNT) {
+            return (sizeClass + 1) << UNIT_SHIFT;
+        }
+        return SMALL_CLASS_LIMIT << (sizeClass - SMALL_CLASS_COUNT + 1);
+    }
+}
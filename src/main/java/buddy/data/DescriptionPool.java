@@ -0,0 +1,105 @@
+package buddy.data;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Bounded pool that deduplicates task descriptions, so that tasks with the same
+ * description, such as recurring items loaded from a data file, share one string.
+ * Unlike {@link String#intern()}, the pool only holds its strings weakly and never
+ * grows past a fixed number of entries: each description may sit in one of a few
+ * slots picked by its hash, and when they are all taken by live strings, the first one
+ * is evicted. Losing an entry only costs a missed chance to share.
+ */
+public class DescriptionPool {
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final int PROBE_LIMIT = 4;
+    // Header and fields of a String plus the header of its compact byte array
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static final DescriptionPool SHARED = new DescriptionPool(DEFAULT_CAPACITY);
+
+    private final WeakReference<String>[] entries;
+    private final int mask;
+    private long hitCount;
+    private long bytesSaved;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param capacity The maximum number of descriptions to hold, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public DescriptionPool(int capacity) {
+        int size = Integer.highestOneBit(Math.max(PROBE_LIMIT, capacity - 1) << 1);
+        this.entries = (WeakReference<String>[]) new WeakReference<?>[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Gets the pool shared by task lists and storage.
+     *
+     * @return The shared pool.
+     */
+    public static DescriptionPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the pooled string equal to the given description, adding it if there is none.
+     *
+     * @param description The description to deduplicate, may be null.
+     * @return An equal string, the same instance for every equal description still in the pool.
+     */
+    public synchronized String intern(String description) {
+        if (description == null) {
+            return null;
+        }
+        int home = spread(description.hashCode()) & mask;
+        int free = -1;
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int slot = (home + i) & mask;
+            WeakReference<String> entry = entries[slot];
+            String pooled = entry == null ? null : entry.get();
+            if (pooled == null) {
+                if (free < 0) {
+                    free = slot;
+                }
+            } else if (pooled.equals(description)) {
+                if (pooled != description) {
+                    hitCount++;
+                    bytesSaved += estimateSize(description);
+                }
+                return pooled;
+            }
+        }
+        entries[free >= 0 ? free : home] = new WeakReference<>(description);
+        return description;
+    }
+
+    /**
+     * Gets the number of descriptions that were replaced by an equal pooled string.
+     *
+     * @return The number of deduplicated descriptions.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets an estimate of the heap freed by deduplication, assuming the duplicates
+     * would otherwise have been kept.
+     *
+     * @return The estimated number of bytes saved.
+     */
+    public synchronized long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long estimateSize(String description) {
+        // Assumes Latin-1 compact strings, whose arrays are padded to 8 bytes
+        return STRING_OVERHEAD_BYTES + ((description.length() + 7) & ~7);
+    }
+}
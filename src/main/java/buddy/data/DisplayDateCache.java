@@ -0,0 +1,47 @@
+package buddy.data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Shared cache of dates formatted for display, such as "Apr 15 2025, 2:00 PM".
+ * The display format stops at minutes, so the epoch minute of a date is its key,
+ * and tasks with the same timestamps end up sharing one string.
+ * The cache is a fixed table where each minute has exactly one slot; a miss simply
+ * overwrites it. Entries are immutable, so readers need no locking.
+ */
+public class DisplayDateCache {
+    private static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
+    private static final int SIZE_BITS = 12;
+    private static final Entry[] entries = new Entry[1 << SIZE_BITS];
+
+    /**
+     * Formats a date and time for display, reusing an earlier result for the same minute.
+     *
+     * @param dateTime The date and time to format.
+     * @return The formatted date and time.
+     */
+    public static String format(LocalDateTime dateTime) {
+        long minute = Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+        // Fibonacci hashing spreads consecutive minutes over the whole table
+        int slot = (int) ((minute * 0x9E3779B97F4A7C15L) >>> (64 - SIZE_BITS));
+        Entry entry = entries[slot];
+        if (entry != null && entry.minute == minute) {
+            return entry.text;
+        }
+        String text = DISPLAY_FORMATTER.format(dateTime);
+        entries[slot] = new Entry(minute, text);
+        return text;
+    }
+
+    private static class Entry {
+        private final long minute;
+        private final String text;
+
+        private Entry(long minute, String text) {
+            this.minute = minute;
+            this.text = text;
+        }
+    }
+}
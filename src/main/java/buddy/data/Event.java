@@ -2,7 +2,7 @@ package buddy.data;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import buddy.util.FastDateParser;
 
 /**
  * Represents an event task in the Buddy application.
@@ -12,8 +12,9 @@ import java.time.format.DateTimeParseException;
 public class Event extends Task {
     protected LocalDateTime from;
     protected LocalDateTime to;
-    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern("d/M/yyyy HHmm");
-    private static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
+    // Formatted on first display; the event times never change afterwards
+    private String fromForDisplay;
+    private String toForDisplay;
     private static final DateTimeFormatter STORAGE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
 
     /**
@@ -42,26 +43,34 @@ public class Event extends Task {
         this.to = to;
     }
 
+    /**
+     * Creates a new Event with a description that is decoded lazily.
+     *
+     * @param encodedDescription The UTF-8 bytes of the description.
+     * @param from The start date and time.
+     * @param to The end date and time.
+     */
+    public Event(byte[] encodedDescription, LocalDateTime from, LocalDateTime to) {
+        super(encodedDescription);
+        this.from = from;
+        this.to = to;
+    }
+
     /**
      * Parses a date/time string into a LocalDateTime object.
-     * Tries multiple formats for flexibility.
+     * Accepts both the input format and the ISO format used in the data file.
      *
      * @param dateTimeString The date/time string to parse.
      * @return The parsed LocalDateTime.
      */
     private LocalDateTime parseDateTime(String dateTimeString) {
-        try {
-            return LocalDateTime.parse(dateTimeString, INPUT_FORMATTER);
-        } catch (DateTimeParseException e) {
-            try {
-                // Try to parse as ISO format (for loading from file)
-                return LocalDateTime.parse(dateTimeString, STORAGE_FORMATTER);
-            } catch (DateTimeParseException e2) {
-                System.out.println("Warning: Could not parse date '" + dateTimeString +
-                        "'. Using current date and time instead.");
-                return LocalDateTime.now();
-            }
+        LocalDateTime dateTime = FastDateParser.parse(dateTimeString);
+        if (dateTime == null) {
+            System.out.println("Warning: Could not parse date '" + dateTimeString +
+                    "'. Using current date and time instead.");
+            return LocalDateTime.now();
         }
+        return dateTime;
     }
 
     /**
@@ -114,14 +123,26 @@ public class Event extends Task {
     }
 
     /**
-     * Returns a string representation of this Event.
+     * Appends the string representation of this Event to a buffer.
      * The string includes an [E] prefix, the completion status, description, and event period.
      *
-     * @return A formatted string representing this Event.
+     * @param buffer The buffer to append to.
+     * @return The same buffer.
      */
     @Override
-    public String toString() {
-        return "[E]" + super.toString() + " (from: " + from.format(DISPLAY_FORMATTER) +
-                " to: " + to.format(DISPLAY_FORMATTER) + ")";
+    public StringBuilder appendTo(StringBuilder buffer) {
+        String fromText = fromForDisplay;
+        if (fromText == null) {
+            // Formatting twice from racing threads is harmless, both get equal strings
+            fromText = DisplayDateCache.format(from);
+            fromForDisplay = fromText;
+        }
+        String toText = toForDisplay;
+        if (toText == null) {
+            toText = DisplayDateCache.format(to);
+            toForDisplay = toText;
+        }
+        return super.appendTo(buffer.append("[E]")).append(" (from: ").append(fromText)
+                .append(" to: ").append(toText).append(')');
     }
 }
\ No newline at end of file
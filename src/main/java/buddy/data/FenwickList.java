@@ -0,0 +1,260 @@
+package buddy.data;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Append-only list with O(log N) positional access and removal.
+ * Elements live in an array of slots that are never shifted; removing an element only
+ * leaves a tombstone behind, and a {@link LiveSlotCounter} maps positions to slots.
+ * Once tombstones make up half of the slots, they are squeezed out in one linear pass,
+ * which keeps removal amortized O(log N).
+ * Null elements are not permitted, and elements can only be added at the end.
+ * Owners that track where elements live, such as by ID, can also address them by slot,
+ * which skips the tree; slots only move when the list is compacted.
+ *
+ * @param <E> The type of elements in the list.
+ */
+public class FenwickList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LiveSlotCounter counter = new LiveSlotCounter();
+    private Object[] slots;
+
+    /**
+     * Creates an empty list.
+     */
+    public FenwickList() {
+        this.slots = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a list holding the given elements, in their iteration order.
+     *
+     * @param elements The initial elements.
+     */
+    public FenwickList(Collection<? extends E> elements) {
+        this.slots = elements.toArray(new Object[Math.max(INITIAL_CAPACITY, elements.size())]);
+        int slotCount = elements.size();
+        for (int i = 0; i < slotCount; i++) {
+            if (slots[i] == null) {
+                throw new NullPointerException("Null elements are not permitted");
+            }
+        }
+        counter.rebuild(slotCount, slot -> true);
+    }
+
+    @Override
+    public int size() {
+        return counter.getLiveCount();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) slots[counter.slotOf(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not permitted");
+        }
+        int slot = counter.slotOf(index);
+        E previous = (E) slots[slot];
+        slots[slot] = element;
+        return previous;
+    }
+
+    /**
+     * Appends an element to the end of the list.
+     *
+     * @param element The element to append.
+     * @return Always true.
+     */
+    @Override
+    public boolean add(E element) {
+        append(element);
+        return true;
+    }
+
+    /**
+     * Appends an element to the end of the list.
+     *
+     * @param element The element to append.
+     * @return The slot holding the element.
+     */
+    public int append(E element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not permitted");
+        }
+        if (counter.getSlotCount() == slots.length) {
+            Object[] grown = new Object[slots.length * 2];
+            System.arraycopy(slots, 0, grown, 0, slots.length);
+            slots = grown;
+        }
+        int slot = counter.append();
+        slots[slot] = element;
+        modCount++;
+        return slot;
+    }
+
+    @Override
+    public E remove(int index) {
+        E removed = removeSlot(counter.slotOf(index));
+        compactIfWorthwhile();
+        return removed;
+    }
+
+    /**
+     * Gets the number of slots, including tombstones; slots are numbered from 0 up to it.
+     *
+     * @return The number of slots.
+     */
+    public int getSlotCount() {
+        return counter.getSlotCount();
+    }
+
+    /**
+     * Finds the slot holding the element at a position.
+     *
+     * @param index The zero-based position of the element.
+     * @return The slot number.
+     * @throws IndexOutOfBoundsException If there is no element at that position.
+     */
+    public int slotOf(int index) {
+        return counter.slotOf(index);
+    }
+
+    /**
+     * Finds the position of the element in a live slot.
+     *
+     * @param slot The slot number.
+     * @return The zero-based position of the element.
+     */
+    public int indexOfSlot(int slot) {
+        return counter.indexOf(slot);
+    }
+
+    /**
+     * Gets the element in a slot.
+     *
+     * @param slot The slot number.
+     * @return The element, or null if the slot is a tombstone.
+     */
+    @SuppressWarnings("unchecked")
+    public E getSlot(int slot) {
+        return (E) slots[slot];
+    }
+
+    /**
+     * Replaces the element in a live slot.
+     *
+     * @param slot The slot number.
+     * @param element The new element.
+     * @return The element it replaced.
+     */
+    @SuppressWarnings("unchecked")
+    public E setSlot(int slot, E element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not permitted");
+        }
+        E previous = (E) slots[slot];
+        slots[slot] = element;
+        return previous;
+    }
+
+    /**
+     * Removes the element in a live slot, leaving a tombstone. Unlike {@link #remove(int)}
+     * this never compacts, so the other slots stay where they are until
+     * {@link #compactIfWorthwhile()} is called.
+     *
+     * @param slot The slot number.
+     * @return The removed element.
+     */
+    @SuppressWarnings("unchecked")
+    public E removeSlot(int slot) {
+        E removed = (E) slots[slot];
+        slots[slot] = null;
+        counter.kill(slot);
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Squeezes out the tombstones once they make up half of the slots.
+     * Afterwards every element's slot is its position.
+     *
+     * @return true if the list was compacted, which moves elements to other slots.
+     */
+    public boolean compactIfWorthwhile() {
+        if (!counter.isWorthCompacting()) {
+            return false;
+        }
+        compact();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        slots = new Object[INITIAL_CAPACITY];
+        counter.rebuild(0, slot -> false);
+        modCount++;
+    }
+
+    /**
+     * Iterates over the slots directly, so a full pass costs O(N) rather than O(N log N).
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int nextSlot = skipTombstones(0);
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return nextSlot < counter.getSlotCount();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E element = (E) slots[nextSlot];
+                nextSlot = skipTombstones(nextSlot + 1);
+                return element;
+            }
+        };
+    }
+
+    private int skipTombstones(int slot) {
+        while (slot < counter.getSlotCount() && slots[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private void compact() {
+        int slotCount = counter.getSlotCount();
+        int live = 0;
+        for (int i = 0; i < slotCount; i++) {
+            if (slots[i] != null) {
+                slots[live++] = slots[i];
+            }
+        }
+        for (int i = live; i < slotCount; i++) {
+            slots[i] = null;
+        }
+        counter.rebuild(live, slot -> true);
+    }
+}
@@ -0,0 +1,298 @@
+package buddy.data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+import buddy.util.BuddyException;
+import buddy.util.CommandMetrics;
+
+/**
+ * Task list that holds its tasks as {@link Task} objects, and the one used by default.
+ * Keyword and date searches are served by a {@link KeywordIndex} and a {@link DateIndex}
+ * that are built on the first search and kept up to date as tasks are added and deleted.
+ * Every task also has a persistent ID. IDs increase along the list, and a {@link TaskIdMap}
+ * maps each ID to the task and the slot holding it, so a task is found by ID with one probe.
+ * The tasks themselves are held in a {@link FenwickList}, so getting or deleting a task
+ * by its position takes O(log N) time instead of shifting the rest of the list.
+ */
+public class IndexedTaskList extends TaskList {
+    private FenwickList<Task> tasks;
+    private KeywordIndex keywordIndex;
+    private DateIndex dateIndex;
+    private TaskIdMap idMap;
+    private long lastId;
+
+    /**
+     * Creates an empty task list.
+     */
+    public IndexedTaskList() {
+        this.tasks = new FenwickList<>();
+    }
+
+    /**
+     * Creates a task list with the given tasks.
+     * Tasks that have no ID yet, or whose ID is out of order, are given new IDs.
+     *
+     * @param tasks The initial list of tasks.
+     */
+    public IndexedTaskList(List<Task> tasks) {
+        assignIds(tasks);
+        this.tasks = new FenwickList<>(tasks);
+        this.lastId = tasks.isEmpty() ? 0 : tasks.get(tasks.size() - 1).getId();
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public void reserveIdsBelow(long nextId) {
+        lastId = Math.max(lastId, nextId - 1);
+    }
+
+    @Override
+    public Task getTask(int index) throws BuddyException {
+        if (index < 0 || index >= tasks.size()) {
+            throw new BuddyException("buddy.data.Task index out of range: " + (index + 1));
+        }
+        return tasks.get(index);
+    }
+
+    @Override
+    public Task getTaskById(long id) throws BuddyException {
+        Task task = getIdMap().get(id);
+        if (task == null) {
+            throw new BuddyException("No task with ID #" + id);
+        }
+        return task;
+    }
+
+    @Override
+    public int getIndexById(long id) throws BuddyException {
+        return tasks.indexOfSlot(slotOfId(id));
+    }
+
+    @Override
+    public Task addTodo(String description) {
+        return append(new Todo(DescriptionPool.shared().intern(description)));
+    }
+
+    @Override
+    public Task addDeadline(String description, LocalDateTime by) {
+        return append(new Deadline(DescriptionPool.shared().intern(description), by));
+    }
+
+    @Override
+    public Task addEvent(String description, LocalDateTime from, LocalDateTime to) {
+        return append(new Event(DescriptionPool.shared().intern(description), from, to));
+    }
+
+    @Override
+    public Task markTaskAsDone(int index) throws BuddyException {
+        return setDone(slotOf(index), true);
+    }
+
+    @Override
+    public Task markTaskAsDoneById(long id) throws BuddyException {
+        return setDone(slotOfId(id), true);
+    }
+
+    @Override
+    public Task markTaskAsUndone(int index) throws BuddyException {
+        return setDone(slotOf(index), false);
+    }
+
+    @Override
+    public Task markTaskAsUndoneById(long id) throws BuddyException {
+        return setDone(slotOfId(id), false);
+    }
+
+    @Override
+    public Task deleteTask(int index) throws BuddyException {
+        return delete(slotOf(index));
+    }
+
+    @Override
+    public Task deleteTaskById(long id) throws BuddyException {
+        return delete(slotOfId(id));
+    }
+
+    @Override
+    public int forEachMatching(TaskFilter filter, int skip, int limit, ObjIntConsumer<Task> visitor) {
+        return forEachMatching(tasks, filter, skip, limit, visitor);
+    }
+
+    @Override
+    public ArrayList<Task> findTasks(String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        if (lowerKeyword.length() < KeywordIndex.GRAM_LENGTH) {
+            // Too short to have a trigram, and likely to match most tasks anyway
+            ArrayList<Task> matchingTasks = new ArrayList<>();
+            for (Task task : tasks) {
+                if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                    matchingTasks.add(task);
+                }
+            }
+            CommandMetrics.addTasksScanned(tasks.size());
+            return matchingTasks;
+        }
+        return getKeywordIndex().find(lowerKeyword);
+    }
+
+    @Override
+    public ArrayList<Task> getTasksOnDate(LocalDateTime date) {
+        ArrayList<Task> tasksOnDate = getDateIndex().findOnDay(date.toLocalDate().toEpochDay());
+        CommandMetrics.addTasksScanned(tasksOnDate.size());
+        return tasksOnDate;
+    }
+
+    @Override
+    public Iterator<Task> getAgenda(LocalDateTime from, LocalDateTime to) {
+        return getDateIndex().iterateDays(from.toLocalDate().toEpochDay(), to.toLocalDate().toEpochDay());
+    }
+
+    @Override
+    Task setDoneById(long id, boolean isDone, ObjIntConsumer<Task> listener) throws BuddyException {
+        int slot = slotOfId(id);
+        Task task = setDone(slot, isDone);
+        listener.accept(task, tasks.indexOfSlot(slot));
+        return task;
+    }
+
+    @Override
+    Task deleteById(long id, ObjIntConsumer<Task> listener) throws BuddyException {
+        int slot = slotOfId(id);
+        int index = tasks.indexOfSlot(slot);
+        Task task = delete(slot);
+        listener.accept(task, index);
+        return task;
+    }
+
+    /**
+     * Builds the ID map and the keyword and date indexes now rather than on first use.
+     */
+    @Override
+    public void buildIndexes() {
+        getIdMap();
+        getKeywordIndex();
+        getDateIndex();
+    }
+
+    private TaskIdMap getIdMap() {
+        if (idMap == null) {
+            idMap = new TaskIdMap();
+            putSlots(idMap);
+        }
+        return idMap;
+    }
+
+    /**
+     * Maps every task's ID to its current slot, replacing any slots the map had for them.
+     */
+    private void putSlots(TaskIdMap map) {
+        for (int slot = 0; slot < tasks.getSlotCount(); slot++) {
+            Task task = tasks.getSlot(slot);
+            if (task != null) {
+                map.put(task, slot);
+            }
+        }
+    }
+
+    private KeywordIndex getKeywordIndex() {
+        if (keywordIndex == null) {
+            // Built lazily so that loading never has to decode every description
+            keywordIndex = new KeywordIndex(getIdMap());
+            for (Task task : tasks) {
+                keywordIndex.add(task);
+            }
+        }
+        return keywordIndex;
+    }
+
+    private DateIndex getDateIndex() {
+        if (dateIndex == null) {
+            dateIndex = new DateIndex();
+            for (Task task : tasks) {
+                dateIndex.add(task);
+            }
+        }
+        return dateIndex;
+    }
+
+    /**
+     * Replaces a task with a copy that has the given completion status, rather than changing
+     * the task in place, so that a task once handed out, for example in a snapshot, stays as it was.
+     */
+    private Task setDone(int slot, boolean isDone) {
+        Task task = tasks.getSlot(slot);
+        if (task.isDone() == isDone) {
+            return task;
+        }
+        Task marked = task.withDone(isDone);
+        tasks.setSlot(slot, marked);
+        if (idMap != null) {
+            idMap.put(marked, slot);
+        }
+        if (dateIndex != null) {
+            dateIndex.replace(task, marked);
+        }
+        return marked;
+    }
+
+    private Task delete(int slot) {
+        Task task = tasks.removeSlot(slot);
+        if (idMap != null) {
+            idMap.remove(task.getId());
+        }
+        if (keywordIndex != null) {
+            // Resolves the IDs it holds through the ID map, so it goes after it
+            keywordIndex.remove(task);
+        }
+        if (dateIndex != null) {
+            dateIndex.remove(task);
+        }
+        if (tasks.compactIfWorthwhile() && idMap != null) {
+            putSlots(idMap);
+        }
+        return task;
+    }
+
+    private Task append(Task task) {
+        task.setId(++lastId);
+        int slot = tasks.append(task);
+        if (idMap != null) {
+            idMap.put(task, slot);
+        }
+        if (keywordIndex != null) {
+            keywordIndex.add(task);
+        }
+        if (dateIndex != null) {
+            dateIndex.add(task);
+        }
+        return task;
+    }
+
+    private int slotOf(int index) throws BuddyException {
+        if (index < 0 || index >= tasks.size()) {
+            throw new BuddyException("buddy.data.Task index out of range: " + (index + 1));
+        }
+        return tasks.slotOf(index);
+    }
+
+    private int slotOfId(long id) throws BuddyException {
+        int slot = getIdMap().getSlot(id);
+        if (slot < 0) {
+            throw new BuddyException("No task with ID #" + id);
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,264 @@
+package buddy.data;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dynamic interval tree over closed {@code [start, end]} ranges of longs.
+ * It is a treap ordered by start (ties broken by a caller-supplied order key), where
+ * every node also tracks the largest end in its subtree. Subtrees that end before the
+ * queried point are skipped, so a stabbing query costs O(log N + k) expected time.
+ *
+ * @param <T> The type of value stored with each interval.
+ */
+public class IntervalTree<T> {
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Gets the number of intervals in the tree.
+     *
+     * @return The number of intervals.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Inserts an interval.
+     *
+     * @param start The first point of the interval.
+     * @param end The last point of the interval, not before {@code start}.
+     * @param order A key that is unique among intervals with the same start.
+     * @param value The value to store with the interval.
+     */
+    public void insert(long start, long end, long order, T value) {
+        root = insert(root, new Node<>(start, end, order, value));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given start and order key, if present.
+     *
+     * @param start The first point of the interval.
+     * @param order The order key the interval was inserted with.
+     * @return true if an interval was removed, false otherwise.
+     */
+    public boolean remove(long start, long order) {
+        int sizeBefore = size;
+        root = remove(root, start, order);
+        return size < sizeBefore;
+    }
+
+    /**
+     * Collects the values of all intervals that contain the given point.
+     *
+     * @param point The point to look up.
+     * @param results The list to add the matching values to, in start order.
+     */
+    public void findContaining(long point, ArrayList<T> results) {
+        findOverlapping(root, point, point, results);
+    }
+
+    /**
+     * Collects the values of all intervals that overlap {@code [from, to]}.
+     *
+     * @param from The first point of the range.
+     * @param to The last point of the range.
+     * @param results The list to add the matching values to, in start order.
+     */
+    public void findOverlapping(long from, long to, ArrayList<T> results) {
+        findOverlapping(root, from, to, results);
+    }
+
+    /**
+     * Lazily iterates over the values of all intervals that overlap {@code [from, to]}.
+     * The tree must not be modified while the iterator is in use.
+     *
+     * @param from The first point of the range.
+     * @param to The last point of the range.
+     * @return An iterator over the matching values, in start order.
+     */
+    public Iterator<T> iterateOverlapping(long from, long to) {
+        return new OverlapIterator<>(root, from, to);
+    }
+
+    private static <T> void findOverlapping(Node<T> node, long from, long to, ArrayList<T> results) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        findOverlapping(node.left, from, to, results);
+        if (node.start > to) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (node.end >= from) {
+            results.add(node.value);
+        }
+        findOverlapping(node.right, from, to, results);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.order, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, long start, long order) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, order, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, order);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, order);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static <T> int compare(long start, long order, Node<T> node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(order, node.order);
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        return left;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        return right;
+    }
+
+    /**
+     * In-order traversal with an explicit stack that skips the same subtrees as
+     * {@link #findOverlapping(long, long, ArrayList)}.
+     */
+    private static class OverlapIterator<T> implements Iterator<T> {
+        private final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        private final long from;
+        private final long to;
+        private Node<T> next;
+
+        private OverlapIterator(Node<T> root, long from, long to) {
+            this.from = from;
+            this.to = to;
+            pushLeftSpine(root);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            T value = next.value;
+            advance();
+            return value;
+        }
+
+        private void advance() {
+            next = null;
+            while (!stack.isEmpty()) {
+                Node<T> node = stack.pop();
+                if (node.start > to) {
+                    // Everything left on the stack starts even later
+                    stack.clear();
+                    return;
+                }
+                pushLeftSpine(node.right);
+                if (node.end >= from) {
+                    next = node;
+                    return;
+                }
+            }
+        }
+
+        private void pushLeftSpine(Node<T> node) {
+            while (node != null && node.maxEnd >= from) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+    }
+
+    private static class Node<T> {
+        private final long start;
+        private final long end;
+        private final long order;
+        private final T value;
+        private final int priority;
+        private long maxEnd;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(long start, long end, long order, T value) {
+            this.start = start;
+            this.end = end;
+            this.order = order;
+            this.value = value;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
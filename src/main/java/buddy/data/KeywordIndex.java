@@ -0,0 +1,286 @@
+package buddy.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import buddy.util.CommandMetrics;
+
+/**
+ * Inverted index from lower-cased description trigrams to the IDs of the tasks that contain them.
+ * A keyword can only be a substring of a description if every trigram of the keyword
+ * appears in it, so intersecting the posting lists yields a small candidate set that
+ * is then checked with the same {@code contains} test as a full scan.
+ *
+ * <p>Trigrams are packed into primitive longs and looked up in an open-addressing table
+ * with Fibonacci hashing, like {@link TaskIdMap} does for IDs. Each posting list is a
+ * growable {@code long[]} of task IDs in increasing order, which is also list order, so
+ * lists are intersected by galloping through them side by side. Deleting a task only
+ * counts it as dead on its posting lists; a list is compacted once half of it is dead,
+ * and IDs that no longer resolve through the ID map are skipped until then.
+ */
+public class KeywordIndex {
+    /** The length of the grams the index is keyed on; shorter keywords cannot use the index. */
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_POSTING_CAPACITY = 2;
+    // Packed grams only use the low 48 bits, so no gram is ever negative
+    private static final long EMPTY = -1;
+    private static final long[] NO_GRAMS = new long[0];
+
+    private final TaskIdMap tasksById;
+    private long[] grams = emptyKeys(INITIAL_CAPACITY);
+    private long[][] postings = new long[INITIAL_CAPACITY][];
+    private int[] postingSizes = new int[INITIAL_CAPACITY];
+    private int[] deadCounts = new int[INITIAL_CAPACITY];
+    private int gramCount;
+
+    /**
+     * Creates an empty index whose IDs are resolved to tasks through the given map.
+     * Deleted tasks must be removed from the map before they are removed from this index.
+     *
+     * @param tasksById The map from IDs to the tasks of the indexed list.
+     */
+    public KeywordIndex(TaskIdMap tasksById) {
+        this.tasksById = tasksById;
+    }
+
+    /**
+     * Adds a task's ID to the posting list of every trigram in its description.
+     * Tasks are expected in increasing order of ID, which takes O(1) time per trigram.
+     *
+     * @param task The task to index.
+     */
+    public void add(Task task) {
+        long id = task.getId();
+        String text = task.getDescription().toLowerCase();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            int slot = slotFor(gramAt(text, i));
+            long[] posting = postings[slot];
+            int size = postingSizes[slot];
+            int index = size;
+            if (size > 0 && posting[size - 1] >= id) {
+                // A repeated trigram, or a task out of order that has to be inserted where it belongs
+                index = Arrays.binarySearch(posting, 0, size, id);
+                if (index >= 0) {
+                    continue;
+                }
+                index = -index - 1;
+            }
+            if (size == posting.length) {
+                posting = Arrays.copyOf(posting, size + (size >> 1) + 1);
+                postings[slot] = posting;
+            }
+            System.arraycopy(posting, index, posting, index + 1, size - index);
+            posting[index] = id;
+            postingSizes[slot] = size + 1;
+        }
+    }
+
+    /**
+     * Counts a deleted task as dead on every posting list it is on, compacting the lists
+     * that have become mostly dead.
+     *
+     * @param task The task to remove, which must no longer be in the ID map.
+     */
+    public void remove(Task task) {
+        for (long gram : gramsOf(task.getDescription().toLowerCase())) {
+            int slot = slotOf(gram);
+            if (slot < 0) {
+                continue;
+            }
+            deadCounts[slot]++;
+            if (deadCounts[slot] * 2 >= postingSizes[slot]) {
+                compact(slot);
+            }
+        }
+    }
+
+    /**
+     * Finds all indexed tasks whose lower-cased description contains the keyword.
+     *
+     * @param lowerKeyword The lower-cased keyword, at least {@value #GRAM_LENGTH} characters long.
+     * @return The matching tasks, in increasing order of ID.
+     */
+    public ArrayList<Task> find(String lowerKeyword) {
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        long[] keywordGrams = gramsOf(lowerKeyword);
+        int[] slots = new int[keywordGrams.length];
+        for (int i = 0; i < keywordGrams.length; i++) {
+            slots[i] = slotOf(keywordGrams[i]);
+            if (slots[i] < 0) {
+                return matchingTasks;
+            }
+        }
+        sortBySize(slots);
+
+        // Only the IDs on the shortest posting list are looked at
+        long[] shortest = postings[slots[0]];
+        int shortestSize = postingSizes[slots[0]];
+        CommandMetrics.addTasksScanned(shortestSize);
+        int[] cursors = new int[slots.length];
+        candidates:
+        for (int i = 0; i < shortestSize; i++) {
+            long id = shortest[i];
+            for (int k = 1; k < slots.length; k++) {
+                int size = postingSizes[slots[k]];
+                int cursor = seek(postings[slots[k]], cursors[k], size, id);
+                cursors[k] = cursor;
+                if (cursor == size) {
+                    break candidates;
+                }
+                if (postings[slots[k]][cursor] != id) {
+                    continue candidates;
+                }
+            }
+            Task task = tasksById.get(id);
+            if (task != null && task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                matchingTasks.add(task);
+            }
+        }
+        return matchingTasks;
+    }
+
+    /**
+     * Finds the first position at or after {@code from} whose ID is not below the target,
+     * galloping ahead before the binary search so that a merge of a short and a long list
+     * costs O(short * log(long / short)).
+     */
+    private static int seek(long[] posting, int from, int size, long id) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && posting[high] < id) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        int index = Arrays.binarySearch(posting, low, Math.min(high, size), id);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void sortBySize(int[] slots) {
+        for (int i = 1; i < slots.length; i++) {
+            int slot = slots[i];
+            int j = i - 1;
+            while (j >= 0 && postingSizes[slots[j]] > postingSizes[slot]) {
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            slots[j + 1] = slot;
+        }
+    }
+
+    /**
+     * Drops the IDs of deleted tasks from a posting list.
+     */
+    private void compact(int slot) {
+        long[] posting = postings[slot];
+        int size = postingSizes[slot];
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (tasksById.get(posting[i]) != null) {
+                posting[live++] = posting[i];
+            }
+        }
+        postings[slot] = live * 2 < posting.length ? Arrays.copyOf(posting, live) : posting;
+        postingSizes[slot] = live;
+        deadCounts[slot] = 0;
+    }
+
+    /**
+     * Gets the table slot of a gram.
+     *
+     * @return The slot, or -1 if the gram has no posting list.
+     */
+    private int slotOf(long gram) {
+        int mask = grams.length - 1;
+        for (int slot = hash(gram, mask); grams[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (grams[slot] == gram) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the table slot of a gram, giving it an empty posting list first if it has none.
+     */
+    private int slotFor(long gram) {
+        if ((gramCount + 1) * 2 > grams.length) {
+            resize(grams.length * 2);
+        }
+        int mask = grams.length - 1;
+        int slot = hash(gram, mask);
+        while (grams[slot] != EMPTY) {
+            if (grams[slot] == gram) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        grams[slot] = gram;
+        postings[slot] = new long[INITIAL_POSTING_CAPACITY];
+        gramCount++;
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] oldGrams = grams;
+        long[][] oldPostings = postings;
+        int[] oldSizes = postingSizes;
+        int[] oldDeadCounts = deadCounts;
+        grams = emptyKeys(capacity);
+        postings = new long[capacity][];
+        postingSizes = new int[capacity];
+        deadCounts = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldGrams.length; i++) {
+            if (oldGrams[i] != EMPTY) {
+                int slot = hash(oldGrams[i], mask);
+                while (grams[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                grams[slot] = oldGrams[i];
+                postings[slot] = oldPostings[i];
+                postingSizes[slot] = oldSizes[i];
+                deadCounts[slot] = oldDeadCounts[i];
+            }
+        }
+    }
+
+    private static long[] emptyKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+
+    private static int hash(long gram, int mask) {
+        // Fibonacci hashing mixes all three characters into the slot, not just their XOR
+        return (int) ((gram * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static long gramAt(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    /**
+     * Gets the distinct trigrams of a text, each packed into the low 48 bits of a long, in sorted order.
+     */
+    private static long[] gramsOf(String text) {
+        int count = text.length() - GRAM_LENGTH + 1;
+        if (count <= 0) {
+            return NO_GRAMS;
+        }
+        long[] textGrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            textGrams[i] = gramAt(text, i);
+        }
+        Arrays.sort(textGrams);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (textGrams[i] != textGrams[distinct - 1]) {
+                textGrams[distinct++] = textGrams[i];
+            }
+        }
+        return distinct == count ? textGrams : Arrays.copyOf(textGrams, distinct);
+    }
+}
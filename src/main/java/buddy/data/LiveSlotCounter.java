@@ -0,0 +1,143 @@
+package buddy.data;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Fenwick tree that counts the live slots of an append-only sequence of slots.
+ * Slots are appended live and can later be killed, which turns them into tombstones.
+ * Positions in the list of live slots map to slot numbers and back in O(log N) time,
+ * so containers built on it never have to shift their storage on removal.
+ */
+public class LiveSlotCounter {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int slotCount;
+    private int liveCount;
+
+    /**
+     * Gets the number of slots, live or dead.
+     *
+     * @return The number of slots.
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Gets the number of live slots.
+     *
+     * @return The number of live slots.
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Appends a live slot.
+     *
+     * @return The number of the new slot.
+     */
+    public int append() {
+        if (slotCount + 1 == tree.length) {
+            int[] grown = new int[tree.length * 2 - 1];
+            System.arraycopy(tree, 0, grown, 0, tree.length);
+            tree = grown;
+        }
+        slotCount++;
+        // The new node covers the slots (slotCount - lowbit(slotCount), slotCount]
+        int position = slotCount;
+        tree[position] = 1 + prefixCount(position - 1) - prefixCount(position - (position & -position));
+        liveCount++;
+        return slotCount - 1;
+    }
+
+    /**
+     * Turns a live slot into a tombstone.
+     *
+     * @param slot The number of the slot to kill.
+     */
+    public void kill(int slot) {
+        for (int position = slot + 1; position <= slotCount; position += position & -position) {
+            tree[position]--;
+        }
+        liveCount--;
+    }
+
+    /**
+     * Finds the slot holding the live element at the given position by descending the tree.
+     *
+     * @param index The zero-based position among the live slots.
+     * @return The slot number.
+     * @throws IndexOutOfBoundsException If there is no live slot at that position.
+     */
+    public int slotOf(int index) {
+        if (index < 0 || index >= liveCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + liveCount);
+        }
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(slotCount); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= slotCount && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        // position is the last slot with fewer than index + 1 live slots up to it
+        return position;
+    }
+
+    /**
+     * Gets the position among the live slots of the given live slot.
+     *
+     * @param slot The slot number.
+     * @return The number of live slots before it.
+     */
+    public int indexOf(int slot) {
+        return prefixCount(slot);
+    }
+
+    /**
+     * Checks whether enough slots are dead that squeezing them out is worth a linear pass.
+     *
+     * @return true if at least half of a non-trivial number of slots are tombstones.
+     */
+    public boolean isWorthCompacting() {
+        return slotCount >= 4 * INITIAL_CAPACITY && liveCount * 2 < slotCount;
+    }
+
+    /**
+     * Rebuilds the tree in linear time for a new set of slots.
+     *
+     * @param slotCount The number of slots.
+     * @param isLive Tells whether the slot with the given number is live.
+     */
+    public void rebuild(int slotCount, IntPredicate isLive) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < slotCount) {
+            capacity *= 2;
+        }
+        tree = new int[capacity + 1];
+        this.slotCount = slotCount;
+        liveCount = 0;
+        for (int position = 1; position <= slotCount; position++) {
+            if (isLive.test(position - 1)) {
+                tree[position]++;
+                liveCount++;
+            }
+            int parent = position + (position & -position);
+            if (parent <= slotCount) {
+                tree[parent] += tree[position];
+            }
+        }
+    }
+
+    private int prefixCount(int position) {
+        int count = 0;
+        for (; position > 0; position -= position & -position) {
+            count += tree[position];
+        }
+        return count;
+    }
+}
@@ -1,13 +1,17 @@
 package buddy.data;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Represents a general task in the Buddy application.
  * This is the base class for all task types, providing common functionality
  * such as description management and completion status tracking.
  */
-public class Task {
+public class Task implements Cloneable {
     protected String description;
     protected boolean isDone;
+    private volatile byte[] encodedDescription;
+    private long id;
 
     /**
      * Creates a new task with the specified description.
@@ -20,6 +24,38 @@ public class Task {
         this.isDone = false;
     }
 
+    /**
+     * Creates a new task whose description is still UTF-8 encoded, for example as copied
+     * out of a memory-mapped data file. The description is only decoded when it is first
+     * needed, and is then deduplicated through the shared {@link DescriptionPool} and the
+     * bytes are dropped.
+     *
+     * @param encodedDescription The UTF-8 bytes of the description.
+     */
+    public Task(byte[] encodedDescription) {
+        this.encodedDescription = encodedDescription;
+        this.isDone = false;
+    }
+
+    /**
+     * Gets the persistent ID of this task.
+     *
+     * @return The ID, or 0 if none has been assigned yet.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Assigns the persistent ID of this task.
+     * IDs are positive and are never changed once a task is in a task list.
+     *
+     * @param id The ID to assign.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     /**
      * Marks this task as done.
      */
@@ -34,6 +70,24 @@ public class Task {
         this.isDone = false;
     }
 
+    /**
+     * Copies this task with the given completion status, leaving this task as it is.
+     * The copy shares the description and dates, which never change.
+     *
+     * @param isDone Whether the copy is done.
+     * @return The copy.
+     */
+    public Task withDone(boolean isDone) {
+        Task copy;
+        try {
+            copy = (Task) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+        copy.isDone = isDone;
+        return copy;
+    }
+
     /**
      * Gets the status icon to represent the completion status of this task.
      * 
@@ -49,7 +103,19 @@ public class Task {
      * @return The task description.
      */
     public String getDescription() {
-        return description;
+        String decoded = description;
+        if (decoded == null) {
+            byte[] encoded = encodedDescription;
+            if (encoded == null) {
+                // Another thread decoded it, and set the description before dropping the bytes
+                return description;
+            }
+            // Decoding twice from racing threads is harmless, both get equal strings
+            decoded = DescriptionPool.shared().intern(new String(encoded, StandardCharsets.UTF_8));
+            description = decoded;
+            encodedDescription = null;
+        }
+        return decoded;
     }
 
     /**
@@ -61,6 +127,17 @@ public class Task {
         return isDone;
     }
 
+    /**
+     * Appends the string representation of this task to a buffer, without building
+     * intermediate strings.
+     *
+     * @param buffer The buffer to append to.
+     * @return The same buffer.
+     */
+    public StringBuilder appendTo(StringBuilder buffer) {
+        return buffer.append(getStatusIcon()).append(' ').append(getDescription());
+    }
+
     /**
      * Returns a string representation of this task.
      * 
@@ -68,6 +145,6 @@ public class Task {
      */
     @Override
     public String toString() {
-        return getStatusIcon() + " " + description;
+        return appendTo(new StringBuilder()).toString();
     }
 }
\ No newline at end of file
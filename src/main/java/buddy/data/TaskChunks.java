@@ -0,0 +1,256 @@
+package buddy.data;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Growable list of tasks that hands out immutable snapshots of itself in O(1) time.
+ * The tasks are kept in chunks of up to {@value #CHUNK_SIZE}, found through an index of
+ * chunk ends. Taking a snapshot only marks the current version as shared. The next change
+ * then starts a new version that copies the chunk index but shares the chunks themselves,
+ * and a chunk is only copied the first time the new version changes it. A snapshot thus
+ * keeps the chunks it can see alive for as long as it is referenced, and no longer.
+ *
+ * <p>The list itself is not thread-safe; changes must be made by one thread at a time,
+ * and snapshots must be taken under a lock that keeps changes out, after which they can
+ * be read from any thread.
+ */
+public class TaskChunks {
+    static final int CHUNK_SIZE = 512;
+    private static final int INITIAL_CHUNK_SLOTS = 4;
+
+    private Snapshot current;
+
+    /**
+     * Creates a list holding the given tasks.
+     *
+     * @param tasks The initial tasks, in order.
+     */
+    public TaskChunks(Iterable<Task> tasks) {
+        current = new Snapshot(new Task[INITIAL_CHUNK_SLOTS][], new int[INITIAL_CHUNK_SLOTS],
+                new boolean[INITIAL_CHUNK_SLOTS], 0, 0);
+        for (Task task : tasks) {
+            append(task);
+        }
+    }
+
+    /**
+     * Gets the number of tasks.
+     *
+     * @return The number of tasks.
+     */
+    public int size() {
+        return current.size;
+    }
+
+    /**
+     * Appends a task.
+     *
+     * @param task The task to append.
+     */
+    public void add(Task task) {
+        append(task);
+    }
+
+    private void append(Task task) {
+        Snapshot version = writableVersion();
+        int last = version.chunkCount - 1;
+        if (last < 0 || version.chunkLength(last) == CHUNK_SIZE) {
+            insertChunk(version, version.chunkCount);
+            last++;
+        }
+        Task[] chunk = ownChunk(version, last);
+        chunk[version.chunkLength(last)] = task;
+        version.ends[last]++;
+        version.size++;
+    }
+
+    /**
+     * Replaces the task at a position, for example with a copy of it that is marked as done.
+     *
+     * @param index The zero-based index of the task.
+     * @param task The task to put there.
+     */
+    public void set(int index, Task task) {
+        Snapshot version = writableVersion();
+        int chunkIndex = version.chunkOf(index);
+        ownChunk(version, chunkIndex)[index - version.chunkStart(chunkIndex)] = task;
+    }
+
+    /**
+     * Removes the task at a position, shifting the rest of its chunk down.
+     *
+     * @param index The zero-based index of the task.
+     */
+    public void remove(int index) {
+        Snapshot version = writableVersion();
+        int chunkIndex = version.chunkOf(index);
+        int length = version.chunkLength(chunkIndex);
+        if (length == 1) {
+            removeChunk(version, chunkIndex);
+        } else {
+            Task[] chunk = ownChunk(version, chunkIndex);
+            int offset = index - version.chunkStart(chunkIndex);
+            System.arraycopy(chunk, offset + 1, chunk, offset, length - offset - 1);
+            chunk[length - 1] = null;
+            for (int i = chunkIndex; i < version.chunkCount; i++) {
+                version.ends[i]--;
+            }
+        }
+        version.size--;
+    }
+
+    /**
+     * Takes an immutable snapshot of the current tasks in O(1) time.
+     *
+     * @return A read-only list of the tasks as they are now.
+     */
+    public Snapshot snapshot() {
+        current.isShared = true;
+        return current;
+    }
+
+    /**
+     * Gets the version that changes go to, starting a new one if the current one is shared.
+     */
+    private Snapshot writableVersion() {
+        Snapshot version = current;
+        if (version.isShared) {
+            int slots = Math.max(version.chunkCount, INITIAL_CHUNK_SLOTS);
+            version = new Snapshot(Arrays.copyOf(version.chunks, slots), Arrays.copyOf(version.ends, slots),
+                    new boolean[slots], version.chunkCount, version.size);
+            current = version;
+        }
+        return version;
+    }
+
+    /**
+     * Gets a chunk of a version for changing, copying it first if other versions may see it.
+     */
+    private static Task[] ownChunk(Snapshot version, int chunkIndex) {
+        if (!version.ownedChunks[chunkIndex]) {
+            version.chunks[chunkIndex] = Arrays.copyOf(version.chunks[chunkIndex], CHUNK_SIZE);
+            version.ownedChunks[chunkIndex] = true;
+        }
+        return version.chunks[chunkIndex];
+    }
+
+    private static void insertChunk(Snapshot version, int chunkIndex) {
+        if (version.chunkCount == version.chunks.length) {
+            int slots = version.chunks.length * 2;
+            version.chunks = Arrays.copyOf(version.chunks, slots);
+            version.ends = Arrays.copyOf(version.ends, slots);
+            version.ownedChunks = Arrays.copyOf(version.ownedChunks, slots);
+        }
+        int moved = version.chunkCount - chunkIndex;
+        System.arraycopy(version.chunks, chunkIndex, version.chunks, chunkIndex + 1, moved);
+        System.arraycopy(version.ends, chunkIndex, version.ends, chunkIndex + 1, moved);
+        System.arraycopy(version.ownedChunks, chunkIndex, version.ownedChunks, chunkIndex + 1, moved);
+        version.chunks[chunkIndex] = new Task[CHUNK_SIZE];
+        version.ends[chunkIndex] = version.chunkStart(chunkIndex);
+        version.ownedChunks[chunkIndex] = true;
+        version.chunkCount++;
+    }
+
+    private static void removeChunk(Snapshot version, int chunkIndex) {
+        int moved = version.chunkCount - chunkIndex - 1;
+        System.arraycopy(version.chunks, chunkIndex + 1, version.chunks, chunkIndex, moved);
+        System.arraycopy(version.ends, chunkIndex + 1, version.ends, chunkIndex, moved);
+        System.arraycopy(version.ownedChunks, chunkIndex + 1, version.ownedChunks, chunkIndex, moved);
+        version.chunkCount--;
+        version.chunks[version.chunkCount] = null;
+        for (int i = chunkIndex; i < version.chunkCount; i++) {
+            version.ends[i]--;
+        }
+    }
+
+    /**
+     * Read-only list of the tasks in a {@link TaskChunks} at the moment it was taken.
+     * Later changes to the list do not show: a task that changes, such as one marked as
+     * done, is replaced by a copy rather than changed in place.
+     */
+    public static class Snapshot extends AbstractList<Task> implements RandomAccess {
+        private Task[][] chunks;
+        private int[] ends;
+        private boolean[] ownedChunks;
+        private int chunkCount;
+        private int size;
+        private volatile boolean isShared;
+
+        private Snapshot(Task[][] chunks, int[] ends, boolean[] ownedChunks, int chunkCount, int size) {
+            this.chunks = chunks;
+            this.ends = ends;
+            this.ownedChunks = ownedChunks;
+            this.chunkCount = chunkCount;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Task get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int chunkIndex = chunkOf(index);
+            return chunks[chunkIndex][index - chunkStart(chunkIndex)];
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private int chunkIndex;
+                private int offset;
+
+                @Override
+                public boolean hasNext() {
+                    return chunkIndex < chunkCount;
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = chunks[chunkIndex][offset++];
+                    if (offset == chunkLength(chunkIndex)) {
+                        chunkIndex++;
+                        offset = 0;
+                    }
+                    return task;
+                }
+            };
+        }
+
+        /**
+         * Finds the chunk holding a position by binary search over the chunk ends.
+         */
+        private int chunkOf(int index) {
+            int low = 0;
+            int high = chunkCount - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ends[middle] <= index) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int chunkStart(int chunkIndex) {
+            return chunkIndex == 0 ? 0 : ends[chunkIndex - 1];
+        }
+
+        private int chunkLength(int chunkIndex) {
+            return ends[chunkIndex] - chunkStart(chunkIndex);
+        }
+    }
+}
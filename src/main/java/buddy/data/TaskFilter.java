@@ -0,0 +1,84 @@
+package buddy.data;
+
+/**
+ * Selects tasks by completion status and type, for example to list only pending deadlines.
+ * Task lists can check a filter against stored flags without rendering any task.
+ */
+public class TaskFilter {
+    /** The type code that matches tasks of every type. */
+    public static final char ANY_TYPE = 0;
+
+    /** A filter that selects every task. */
+    public static final TaskFilter ALL = new TaskFilter(Status.ANY, ANY_TYPE);
+
+    /**
+     * The completion status a filter selects.
+     */
+    public enum Status {
+        ANY,
+        DONE,
+        PENDING
+    }
+
+    private final Status status;
+    private final char type;
+
+    /**
+     * Creates a filter.
+     *
+     * @param status The completion status to select.
+     * @param type The type code to select, 'T', 'D' or 'E', or {@link #ANY_TYPE}.
+     */
+    public TaskFilter(Status status, char type) {
+        this.status = status;
+        this.type = type;
+    }
+
+    /**
+     * Checks whether this filter selects every task.
+     *
+     * @return true if neither the status nor the type is restricted.
+     */
+    public boolean isAll() {
+        return status == Status.ANY && type == ANY_TYPE;
+    }
+
+    /**
+     * Checks whether this filter selects a task.
+     *
+     * @param task The task to check.
+     * @return true if the task is selected.
+     */
+    public boolean matches(Task task) {
+        return matches(task.isDone(), typeOf(task));
+    }
+
+    /**
+     * Checks whether this filter selects a task with the given flags.
+     *
+     * @param isDone Whether the task is done.
+     * @param typeCode The type code of the task, 'T', 'D' or 'E'.
+     * @return true if a task with these flags is selected.
+     */
+    public boolean matches(boolean isDone, char typeCode) {
+        if (status == Status.DONE && !isDone || status == Status.PENDING && isDone) {
+            return false;
+        }
+        return type == ANY_TYPE || type == typeCode;
+    }
+
+    /**
+     * Gets the type code of a task, as shown in its string representation.
+     *
+     * @param task The task.
+     * @return 'D' for deadlines, 'E' for events and 'T' for everything else.
+     */
+    public static char typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return 'D';
+        } else if (task instanceof Event) {
+            return 'E';
+        }
+        return 'T';
+    }
+}
@@ -0,0 +1,177 @@
+package buddy.data;
+
+/**
+ * Hash map from task IDs to the slots that hold the tasks in their list, and optionally
+ * to the tasks themselves, keyed on primitive longs so that lookups never box.
+ * It uses open addressing with linear probing, and deletions shift later entries of the
+ * same probe run back instead of leaving tombstones, so lookups stay O(1) however many
+ * tasks have been deleted.
+ */
+public class TaskIdMap {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = 0;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private Task[] values;
+    private int size;
+
+    /**
+     * Creates an empty map that holds tasks as well as their slots.
+     */
+    public TaskIdMap() {
+        this(true);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param isHoldingTasks Whether to hold the tasks as well as their slots, for lists
+     *         that keep task objects rather than building them on demand.
+     */
+    public TaskIdMap(boolean isHoldingTasks) {
+        this.values = isHoldingTasks ? new Task[INITIAL_CAPACITY] : null;
+    }
+
+    /**
+     * Gets the number of tasks in the map.
+     *
+     * @return The number of tasks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the task with the given ID. Only maps that hold tasks can be asked for them.
+     *
+     * @param id The ID to look up.
+     * @return The task, or null if there is no task with that ID.
+     */
+    public Task get(long id) {
+        int entry = find(id);
+        return entry < 0 ? null : values[entry];
+    }
+
+    /**
+     * Gets the slot of the task with the given ID.
+     *
+     * @param id The ID to look up.
+     * @return The slot, or -1 if there is no task with that ID.
+     */
+    public int getSlot(long id) {
+        int entry = find(id);
+        return entry < 0 ? -1 : slots[entry];
+    }
+
+    /**
+     * Maps the task's ID to the task and its slot, replacing any task that had the same ID.
+     *
+     * @param task The task to add; its ID must have been assigned.
+     * @param slot The slot holding the task in its list.
+     */
+    public void put(Task task, int slot) {
+        put(task.getId(), task, slot);
+    }
+
+    /**
+     * Maps an ID to a slot, in a map that does not hold tasks.
+     *
+     * @param id The ID of the task, which must have been assigned.
+     * @param slot The slot holding the task in its list.
+     */
+    public void put(long id, int slot) {
+        put(id, null, slot);
+    }
+
+    /**
+     * Removes the task with the given ID.
+     *
+     * @param id The ID to remove.
+     * @return true if there was a task with that ID.
+     */
+    public boolean remove(long id) {
+        int hole = find(id);
+        if (hole < 0) {
+            return false;
+        }
+        size--;
+
+        // Shift back every later entry of the run that would no longer be reachable
+        int mask = keys.length - 1;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = homeOf(keys[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                slots[hole] = slots[next];
+                if (values != null) {
+                    values[hole] = values[next];
+                }
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        if (values != null) {
+            values[hole] = null;
+        }
+        return true;
+    }
+
+    private void put(long id, Task task, int slot) {
+        assert id != EMPTY : "Task has no ID";
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int entry = homeOf(id, mask);
+        while (keys[entry] != EMPTY && keys[entry] != id) {
+            entry = (entry + 1) & mask;
+        }
+        if (keys[entry] == EMPTY) {
+            size++;
+        }
+        keys[entry] = id;
+        slots[entry] = slot;
+        if (values != null) {
+            values[entry] = task;
+        }
+    }
+
+    /**
+     * Finds the table entry holding an ID.
+     *
+     * @return The entry, or -1 if the ID is not in the map.
+     */
+    private int find(long id) {
+        if (id == EMPTY) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int entry = homeOf(id, mask); keys[entry] != EMPTY; entry = (entry + 1) & mask) {
+            if (keys[entry] == id) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        Task[] oldValues = values;
+        keys = new long[capacity];
+        slots = new int[capacity];
+        values = oldValues != null ? new Task[capacity] : null;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues != null ? oldValues[i] : null, oldSlots[i]);
+            }
+        }
+    }
+
+    private static int homeOf(long id, int mask) {
+        // Fibonacci hashing spreads the sequential IDs over the table
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -2,48 +2,42 @@ package buddy.data;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
 import buddy.util.BuddyException;
+import buddy.util.CommandMetrics;
 
 /**
  * Represents a list of tasks in the Buddy application.
  * Provides methods to add, retrieve, modify, and delete tasks.
+ * Every task also has a persistent ID. IDs increase along the list and are never reused.
+ * This class only holds the operations; {@link IndexedTaskList} keeps task objects with
+ * search indexes, {@link CompactTaskList} keeps primitive columns and
+ * {@link ConcurrentTaskList} guards another list for use by several threads.
  */
-public class TaskList {
-    private ArrayList<Task> tasks;
-
+public abstract class TaskList {
     /**
-     * Creates an empty task list.
-     */
-    public TaskList() {
-        this.tasks = new ArrayList<>();
-    }
-
-    /**
-     * Creates a task list with the given tasks.
+     * Gets all tasks in this task list.
      *
-     * @param tasks The initial list of tasks.
+     * @return A read-only view of the tasks, in list order.
      */
-    public TaskList(ArrayList<Task> tasks) {
-        this.tasks = tasks;
-    }
+    public abstract List<Task> getTasks();
 
     /**
-     * Gets all tasks in this task list.
+     * Gets the number of tasks in this task list.
      *
-     * @return The list of tasks.
+     * @return The size of the task list.
      */
-    public ArrayList<Task> getTasks() {
-        return tasks;
-    }
+    public abstract int size();
 
     /**
-     * Gets the number of tasks in this task list.
+     * Makes sure that tasks added from now on get IDs of at least the given one, so that
+     * the IDs of tasks deleted from the end of the list before it was loaded are not reused.
      *
-     * @return The size of the task list.
+     * @param nextId The lowest ID the next new task may get.
      */
-    public int size() {
-        return tasks.size();
-    }
+    public abstract void reserveIdsBelow(long nextId);
 
     /**
      * Retrieves a task at the specified index.
@@ -52,12 +46,25 @@ public class TaskList {
      * @return The task at the specified index.
      * @throws BuddyException If the index is out of range.
      */
-    public Task getTask(int index) throws BuddyException {
-        if (index < 0 || index >= tasks.size()) {
-            throw new BuddyException("buddy.data.Task index out of range: " + (index + 1));
-        }
-        return tasks.get(index);
-    }
+    public abstract Task getTask(int index) throws BuddyException;
+
+    /**
+     * Retrieves the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The task with that ID.
+     * @throws BuddyException If there is no task with that ID.
+     */
+    public abstract Task getTaskById(long id) throws BuddyException;
+
+    /**
+     * Finds the position of the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The zero-based index of the task.
+     * @throws BuddyException If there is no task with that ID.
+     */
+    public abstract int getIndexById(long id) throws BuddyException;
 
     /**
      * Adds a new todo task to the list.
@@ -65,11 +72,7 @@ public class TaskList {
      * @param description The description of the todo task.
      * @return The newly created task.
      */
-    public Task addTodo(String description) {
-        Task task = new Todo(description);
-        tasks.add(task);
-        return task;
-    }
+    public abstract Task addTodo(String description);
 
     /**
      * Adds a new deadline task to the list.
@@ -78,11 +81,7 @@ public class TaskList {
      * @param by The date and time by which the task should be completed.
      * @return The newly created task.
      */
-    public Task addDeadline(String description, LocalDateTime by) {
-        Task task = new Deadline(description, by);
-        tasks.add(task);
-        return task;
-    }
+    public abstract Task addDeadline(String description, LocalDateTime by);
 
     /**
      * Adds a new event task to the list.
@@ -92,11 +91,7 @@ public class TaskList {
      * @param to The end date and time of the event.
      * @return The newly created task.
      */
-    public Task addEvent(String description, LocalDateTime from, LocalDateTime to) {
-        Task task = new Event(description, from, to);
-        tasks.add(task);
-        return task;
-    }
+    public abstract Task addEvent(String description, LocalDateTime from, LocalDateTime to);
 
     /**
      * Marks a task as done.
@@ -105,11 +100,16 @@ public class TaskList {
      * @return The updated task.
      * @throws BuddyException If the index is out of range.
      */
-    public Task markTaskAsDone(int index) throws BuddyException {
-        Task task = getTask(index);
-        task.markAsDone();
-        return task;
-    }
+    public abstract Task markTaskAsDone(int index) throws BuddyException;
+
+    /**
+     * Marks the task with the given ID as done.
+     *
+     * @param id The ID of the task to mark as done.
+     * @return The updated task.
+     * @throws BuddyException If there is no task with that ID.
+     */
+    public abstract Task markTaskAsDoneById(long id) throws BuddyException;
 
     /**
      * Marks a task as not done.
@@ -118,11 +118,16 @@ public class TaskList {
      * @return The updated task.
      * @throws BuddyException If the index is out of range.
      */
-    public Task markTaskAsUndone(int index) throws BuddyException {
-        Task task = getTask(index);
-        task.markAsUndone();
-        return task;
-    }
+    public abstract Task markTaskAsUndone(int index) throws BuddyException;
+
+    /**
+     * Marks the task with the given ID as not done.
+     *
+     * @param id The ID of the task to mark as not done.
+     * @return The updated task.
+     * @throws BuddyException If there is no task with that ID.
+     */
+    public abstract Task markTaskAsUndoneById(long id) throws BuddyException;
 
     /**
      * Deletes a task from the list.
@@ -131,38 +136,169 @@ public class TaskList {
      * @return The deleted task.
      * @throws BuddyException If the index is out of range.
      */
-    public Task deleteTask(int index) throws BuddyException {
-        if (index < 0 || index >= tasks.size()) {
-            throw new BuddyException("buddy.data.Task index out of range: " + (index + 1));
-        }
-        return tasks.remove(index);
+    public abstract Task deleteTask(int index) throws BuddyException;
+
+    /**
+     * Deletes the task with the given ID from the list.
+     *
+     * @param id The ID of the task to delete.
+     * @return The deleted task.
+     * @throws BuddyException If there is no task with that ID.
+     */
+    public abstract Task deleteTaskById(long id) throws BuddyException;
+
+    /**
+     * Visits one page of the tasks selected by a filter, in list order, without
+     * collecting them. Each task is passed along with its index in the full list.
+     *
+     * @param filter The filter selecting the tasks.
+     * @param skip The number of selected tasks to skip before the page starts.
+     * @param limit The maximum number of selected tasks on the page.
+     * @param visitor Receives each task on the page and its zero-based index in the list.
+     * @return The total number of tasks the filter selects.
+     */
+    public abstract int forEachMatching(TaskFilter filter, int skip, int limit, ObjIntConsumer<Task> visitor);
+
+    /**
+     * Finds all tasks whose description contains the keyword, ignoring case.
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching tasks, in list order.
+     */
+    public abstract ArrayList<Task> findTasks(String keyword);
+
+    /**
+     * Finds all deadlines due on the given date and all events that span it.
+     *
+     * @param date The date to look up; the time of day is ignored.
+     * @return The matching tasks, in list order.
+     */
+    public abstract ArrayList<Task> getTasksOnDate(LocalDateTime date);
+
+    /**
+     * Lazily iterates over all deadlines due and all events held between two dates.
+     * Tasks come in chronological order of their due or start time.
+     * The list must not be modified while the iterator is in use.
+     *
+     * @param from The first date of the range; the time of day is ignored.
+     * @param to The last date of the range, inclusive; the time of day is ignored.
+     * @return An iterator over the matching tasks.
+     */
+    public abstract Iterator<Task> getAgenda(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Builds any lookup structures now rather than on first use, so that later lookups
+     * and searches only read this list. Lists that build nothing lazily do nothing.
+     */
+    public void buildIndexes() {
+    }
+
+    /**
+     * Marks the task with the given ID as done or not done, and passes the updated task
+     * and its index to a listener, so that a list kept in step with this one by position
+     * needs no lookup of its own. Lists that cannot do better look up the index first.
+     *
+     * @param id The ID of the task to mark.
+     * @param isDone Whether to mark the task as done rather than not done.
+     * @param listener Receives the updated task and its zero-based index.
+     * @return The updated task.
+     * @throws BuddyException If there is no task with that ID.
+     */
+    Task setDoneById(long id, boolean isDone, ObjIntConsumer<Task> listener) throws BuddyException {
+        int index = getIndexById(id);
+        Task task = isDone ? markTaskAsDone(index) : markTaskAsUndone(index);
+        listener.accept(task, index);
+        return task;
     }
 
-    public ArrayList<Task> findTasks(String keyword) {
-        ArrayList<Task> matchingTasks = new ArrayList<>();
+    /**
+     * Deletes the task with the given ID, and passes the deleted task and the index it was at
+     * to a listener, as {@link #setDoneById} does.
+     *
+     * @param id The ID of the task to delete.
+     * @param listener Receives the deleted task and its zero-based index before the deletion.
+     * @return The deleted task.
+     * @throws BuddyException If there is no task with that ID.
+     */
+    Task deleteById(long id, ObjIntConsumer<Task> listener) throws BuddyException {
+        int index = getIndexById(id);
+        Task task = deleteTask(index);
+        listener.accept(task, index);
+        return task;
+    }
+
+    /**
+     * Visits one page of the tasks in a list selected by a filter, as {@link #forEachMatching} does.
+     *
+     * @param tasks The tasks to visit, with fast access by index.
+     * @return The total number of tasks the filter selects.
+     */
+    static int forEachMatching(List<Task> tasks, TaskFilter filter, int skip, int limit,
+            ObjIntConsumer<Task> visitor) {
+        if (filter.isAll()) {
+            int end = (int) Math.min(tasks.size(), (long) skip + limit);
+            for (int index = skip; index < end; index++) {
+                visitor.accept(tasks.get(index), index);
+            }
+            CommandMetrics.addTasksScanned(Math.max(0, end - skip));
+            return tasks.size();
+        }
+        CommandMetrics.addTasksScanned(tasks.size());
+        int matchCount = 0;
+        int index = 0;
         for (Task task : tasks) {
-            if (task.getDescription().toLowerCase().contains(keyword.toLowerCase())) {
-                matchingTasks.add(task);
+            if (filter.matches(task)) {
+                if (matchCount >= skip && matchCount - skip < limit) {
+                    visitor.accept(task, index);
+                }
+                matchCount++;
             }
+            index++;
         }
-        return matchingTasks;
+        return matchCount;
     }
 
-    public ArrayList<Task> getTasksOnDate(LocalDateTime date) {
-        ArrayList<Task> matchingTasks = new ArrayList<>();
+    /**
+     * Gives every task that has no ID, or an ID not greater than the one before it,
+     * the next ID after its predecessor, so that IDs increase along the list.
+     *
+     * @param tasks The tasks to assign IDs to.
+     * @return The number of tasks that were given a new ID.
+     */
+    public static int assignIds(List<Task> tasks) {
+        int assigned = 0;
+        long lastId = 0;
         for (Task task : tasks) {
-            if (task instanceof Deadline) {
-                Deadline deadline = (Deadline) task;
-                if (deadline.isOnDate(date)) {
-                    matchingTasks.add(task);
-                }
-            } else if (task instanceof Event) {
-                Event event = (Event) task;
-                if (event.isOnDate(date)) {
-                    matchingTasks.add(task);
-                }
+            if (task.getId() <= lastId) {
+                task.setId(lastId + 1);
+                assigned++;
+            }
+            lastId = task.getId();
+        }
+        return assigned;
+    }
+
+    /**
+     * Finds the position of the task with the given ID in a list whose IDs increase along it.
+     *
+     * @param tasks The tasks to search, in increasing order of ID.
+     * @param id The ID to look for.
+     * @return The zero-based index of the task, or -1 if there is no task with that ID.
+     */
+    public static int indexOfId(List<Task> tasks, long id) {
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = tasks.get(middle).getId();
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
             }
         }
-        return matchingTasks;
+        return -1;
     }
-}
\ No newline at end of file
+}
@@ -16,13 +16,23 @@ public class Todo extends Task {
     }
 
     /**
-     * Returns a string representation of this Todo task.
+     * Creates a new Todo task with a description that is decoded lazily.
+     *
+     * @param encodedDescription The UTF-8 bytes of the description.
+     */
+    public Todo(byte[] encodedDescription) {
+        super(encodedDescription);
+    }
+
+    /**
+     * Appends the string representation of this Todo task to a buffer.
      * The string includes a [T] prefix, the completion status, and the description.
      *
-     * @return A formatted string representing this Todo task.
+     * @param buffer The buffer to append to.
+     * @return The same buffer.
      */
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    public StringBuilder appendTo(StringBuilder buffer) {
+        return super.appendTo(buffer.append("[T]"));
     }
 }
\ No newline at end of file
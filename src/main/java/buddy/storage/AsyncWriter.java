@@ -0,0 +1,192 @@
+package buddy.storage;
+
+import buddy.util.BuddyException;
+
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit writer that moves persistence off the command thread.
+ * Items are queued by the caller and a dedicated thread drains everything pending
+ * into a single write, followed by at most one {@code fsync} as the
+ * {@link DurabilityPolicy} allows.
+ *
+ * @param <T> The type of item written by the sink.
+ */
+public class AsyncWriter<T> {
+    private static final int MAX_BATCH_SIZE = 4096;
+
+    private final Sink<T> sink;
+    private final DurabilityPolicy policy;
+    private final long intervalNanos;
+    private final BlockingQueue<Entry<T>> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile BuddyException failure;
+
+    /**
+     * Creates the writer and starts its background thread.
+     *
+     * @param sink Where queued items are written to.
+     * @param policy When written batches are forced to disk.
+     * @param intervalMillis The force interval for {@link DurabilityPolicy#INTERVAL}.
+     */
+    public AsyncWriter(Sink<T> sink, DurabilityPolicy policy, long intervalMillis) {
+        this.sink = sink;
+        this.policy = policy;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.thread = new Thread(this::runLoop, "buddy-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues an item for writing without waiting for it to reach the disk.
+     *
+     * @param item The item to write.
+     * @throws BuddyException If an earlier write has failed.
+     */
+    public void submit(T item) throws BuddyException {
+        throwIfFailed();
+        queue.add(new Entry<>(item, null, false));
+    }
+
+    /**
+     * Waits until every item queued so far has been written and forced to disk.
+     *
+     * @throws BuddyException If a write failed or the wait was interrupted.
+     */
+    public void sync() throws BuddyException {
+        awaitBarrier(false);
+    }
+
+    /**
+     * Writes and forces every queued item, then stops the writer thread.
+     *
+     * @throws BuddyException If a write failed or the wait was interrupted.
+     */
+    public void close() throws BuddyException {
+        if (!thread.isAlive()) {
+            throwIfFailed();
+            return;
+        }
+        awaitBarrier(true);
+    }
+
+    private void awaitBarrier(boolean isShutdown) throws BuddyException {
+        CountDownLatch barrier = new CountDownLatch(1);
+        queue.add(new Entry<>(null, barrier, isShutdown));
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BuddyException("Interrupted while waiting for pending writes");
+        }
+        throwIfFailed();
+    }
+
+    private void throwIfFailed() throws BuddyException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void runLoop() {
+        ArrayList<Entry<T>> batch = new ArrayList<>();
+        long lastForce = System.nanoTime();
+        boolean hasUnforced = false;
+        boolean isShutdown = false;
+
+        while (!isShutdown) {
+            try {
+                Entry<T> first;
+                if (policy == DurabilityPolicy.INTERVAL && hasUnforced) {
+                    long remaining = intervalNanos - (System.nanoTime() - lastForce);
+                    first = queue.poll(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                } else {
+                    first = queue.take();
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH_SIZE);
+                }
+            } catch (InterruptedException e) {
+                // Nobody interrupts this thread except on JVM shutdown; keep draining
+                continue;
+            }
+
+            boolean isForced = policy == DurabilityPolicy.ALWAYS
+                    || (policy == DurabilityPolicy.INTERVAL && System.nanoTime() - lastForce >= intervalNanos);
+            for (Entry<T> entry : batch) {
+                if (entry.item != null && failure == null) {
+                    try {
+                        sink.write(entry.item);
+                    } catch (BuddyException e) {
+                        // Later items depend on this one, so stop writing altogether
+                        failure = e;
+                    }
+                }
+                if (entry.barrier != null) {
+                    isForced = true;
+                    isShutdown |= entry.isShutdown;
+                }
+            }
+
+            if (failure == null && (!batch.isEmpty() || isForced)) {
+                try {
+                    sink.flush(isForced);
+                    hasUnforced = !isForced;
+                    if (isForced) {
+                        lastForce = System.nanoTime();
+                    }
+                } catch (BuddyException e) {
+                    failure = e;
+                }
+            }
+
+            for (Entry<T> entry : batch) {
+                if (entry.barrier != null) {
+                    entry.barrier.countDown();
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Destination of the items queued on an {@link AsyncWriter}.
+     *
+     * @param <T> The type of item written.
+     */
+    public interface Sink<T> {
+        /**
+         * Writes one item into the sink's buffer.
+         *
+         * @param item The item to write.
+         * @throws BuddyException If the item cannot be written.
+         */
+        void write(T item) throws BuddyException;
+
+        /**
+         * Hands buffered items to the OS and optionally forces them to disk.
+         *
+         * @param isForced Whether to {@code fsync} after writing.
+         * @throws BuddyException If the buffer cannot be flushed.
+         */
+        void flush(boolean isForced) throws BuddyException;
+    }
+
+    private static class Entry<T> {
+        private final T item;
+        private final CountDownLatch barrier;
+        private final boolean isShutdown;
+
+        private Entry(T item, CountDownLatch barrier, boolean isShutdown) {
+            this.item = item;
+            this.barrier = barrier;
+            this.isShutdown = isShutdown;
+        }
+    }
+}
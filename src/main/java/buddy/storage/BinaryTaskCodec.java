@@ -0,0 +1,181 @@
+package buddy.storage;
+
+import buddy.data.Deadline;
+import buddy.data.DescriptionPool;
+import buddy.data.Event;
+import buddy.data.Task;
+import buddy.data.Todo;
+import buddy.util.BuddyException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the compact binary task file format.
+ *
+ * <p>The file starts with a header of a 4-byte magic number, a 2-byte format version,
+ * the 8-byte journal sequence number folded into the snapshot, the 8-byte ID the next
+ * new task gets and a 4-byte task count.
+ * Each task then follows as one flag byte (type in the low bits, done in the high bit),
+ * its 8-byte ID, a length-prefixed UTF-8 description and zero, one or two dates stored
+ * as epoch minutes. Unlike the text format, descriptions may contain any character.
+ * Version 1 files, which have no task IDs, and version 2 files, which have no next ID,
+ * can still be read.
+ */
+public class BinaryTaskCodec {
+    public static final int MAGIC = 0x42444459; // "BDDY"
+    public static final short VERSION = 3;
+
+    private static final short VERSION_WITHOUT_IDS = 1;
+    private static final short VERSION_WITHOUT_NEXT_ID = 2;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int TYPE_MASK = 0x03;
+    private static final int TYPE_TODO = 0;
+    private static final int TYPE_DEADLINE = 1;
+    private static final int TYPE_EVENT = 2;
+    private static final int DONE_FLAG = 0x80;
+    // Flag byte and description length, plus the ID from version 2 on
+    private static final int MIN_TASK_SIZE = 1 + 4;
+
+    /**
+     * Checks whether the given file starts with the binary format's magic number.
+     *
+     * @param file The file to check.
+     * @return true if the file is in the binary format, false otherwise.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isBinaryFile(File file) throws IOException {
+        if (file.length() < 4) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Reads all tasks from a binary task file.
+     *
+     * @param file The file to read.
+     * @param tasks The list to append the tasks to.
+     * @return The header, whose next ID is 0 for a file written before it was recorded.
+     * @throws IOException If the file cannot be read.
+     * @throws BuddyException If the file is not a supported binary task file.
+     */
+    public static SnapshotHeader read(File file, ArrayList<Task> tasks) throws IOException, BuddyException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new BuddyException("Not a binary task file: " + file.getPath());
+            }
+            short version = in.readShort();
+            if (version != VERSION && version != VERSION_WITHOUT_NEXT_ID && version != VERSION_WITHOUT_IDS) {
+                throw new BuddyException("Unsupported task file version: " + version);
+            }
+            boolean hasIds = version != VERSION_WITHOUT_IDS;
+            long seq = in.readLong();
+            long nextId = version == VERSION ? in.readLong() : 0;
+            int count = in.readInt();
+            if (count < 0 || count > in.available() / MIN_TASK_SIZE) {
+                throw new BuddyException("Corrupted binary task file: " + file.getPath());
+            }
+            tasks.ensureCapacity(tasks.size() + count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in, hasIds));
+            }
+            return new SnapshotHeader(seq, nextId);
+        } catch (EOFException e) {
+            throw new BuddyException("Truncated binary task file: " + file.getPath());
+        }
+    }
+
+    /**
+     * Writes all tasks in the binary format.
+     *
+     * @param out The stream to write to.
+     * @param tasks The tasks to write.
+     * @param seq The journal sequence number folded into this snapshot.
+     * @param nextId The ID the next new task gets.
+     * @throws IOException If the tasks cannot be written.
+     */
+    public static void write(DataOutputStream out, List<Task> tasks, long seq, long nextId) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(seq);
+        out.writeLong(nextId);
+        out.writeInt(tasks.size());
+        for (Task task : tasks) {
+            writeTask(out, task);
+        }
+    }
+
+    private static Task readTask(DataInputStream in, boolean hasIds) throws IOException, BuddyException {
+        int flags = in.readUnsignedByte();
+        long id = hasIds ? in.readLong() : 0;
+        int length = in.readInt();
+        // A file stream knows how many bytes are left, so a corrupt length cannot allocate past them
+        if (length < 0 || length > in.available()) {
+            throw new BuddyException("Corrupted task description length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        String description = DescriptionPool.shared().intern(new String(bytes, StandardCharsets.UTF_8));
+
+        Task task;
+        switch (flags & TYPE_MASK) {
+            case TYPE_TODO:
+                task = new Todo(description);
+                break;
+            case TYPE_DEADLINE:
+                task = new Deadline(description, fromEpochMinute(in.readLong()));
+                break;
+            case TYPE_EVENT:
+                LocalDateTime from = fromEpochMinute(in.readLong());
+                task = new Event(description, from, fromEpochMinute(in.readLong()));
+                break;
+            default:
+                throw new BuddyException("Unknown task type flag: " + flags);
+        }
+        if ((flags & DONE_FLAG) != 0) {
+            task.markAsDone();
+        }
+        task.setId(id);
+        return task;
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        int type = task instanceof Deadline ? TYPE_DEADLINE : task instanceof Event ? TYPE_EVENT : TYPE_TODO;
+        out.writeByte(type | (task.isDone() ? DONE_FLAG : 0));
+        out.writeLong(task.getId());
+        byte[] bytes = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+
+        if (task instanceof Deadline) {
+            out.writeLong(toEpochMinute(((Deadline) task).getBy()));
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            out.writeLong(toEpochMinute(event.getFrom()));
+            out.writeLong(toEpochMinute(event.getTo()));
+        }
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,97 @@
+package buddy.storage;
+
+import buddy.util.BuddyException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs journal compactions on a single background thread so that folding the
+ * journal into a new snapshot never blocks the command loop.
+ * At most one compaction is in flight at any time. The compactor may be driven
+ * from the command thread or from the asynchronous writer thread.
+ */
+public class Compactor {
+    private final ExecutorService executor;
+    private volatile Future<?> pending;
+
+    /**
+     * Creates a compactor with its own daemon worker thread.
+     */
+    public Compactor() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "buddy-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks whether a compaction is still running.
+     *
+     * @return true if the previous compaction has not finished yet, false otherwise.
+     */
+    public boolean isBusy() {
+        Future<?> current = pending;
+        return current != null && !current.isDone();
+    }
+
+    /**
+     * Starts a compaction in the background.
+     *
+     * @param compaction The work that writes the new snapshot and drops the folded journal.
+     */
+    public void submit(Compaction compaction) {
+        pending = executor.submit(() -> {
+            compaction.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits for the in-flight compaction, if any, and reports whether it failed.
+     *
+     * @throws BuddyException If the compaction failed or the wait was interrupted.
+     */
+    public void awaitCompletion() throws BuddyException {
+        Future<?> current = pending;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.get();
+        } catch (ExecutionException e) {
+            throw new BuddyException("Error compacting journal: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BuddyException("Interrupted while compacting journal");
+        } finally {
+            if (pending == current) {
+                pending = null;
+            }
+        }
+    }
+
+    /**
+     * Waits for the in-flight compaction and stops the worker thread.
+     *
+     * @throws BuddyException If the last compaction failed.
+     */
+    public void shutdown() throws BuddyException {
+        try {
+            awaitCompletion();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A unit of compaction work that may fail with an I/O error.
+     */
+    @FunctionalInterface
+    public interface Compaction {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,14 @@
+package buddy.storage;
+
+/**
+ * Controls how often the asynchronous writer forces journaled changes to disk.
+ * Every batch is always handed to the OS; the policy only decides when to {@code fsync}.
+ */
+public enum DurabilityPolicy {
+    /** Force every batch to disk before acknowledging the next one. */
+    ALWAYS,
+    /** Force pending batches to disk at most once per configured interval. */
+    INTERVAL,
+    /** Only force pending changes to disk when the storage is closed. */
+    ON_EXIT
+}
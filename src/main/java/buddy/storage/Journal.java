@@ -0,0 +1,240 @@
+package buddy.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+/**
+ * Append-only log of task mutations that sits next to the snapshot file.
+ * Each record occupies one line of the form {@code <seq> <op> <payload>}, so a
+ * mutation costs a single small append instead of a rewrite of the whole snapshot.
+ */
+public class Journal {
+    public static final char OP_ADD = 'A';
+    public static final char OP_MARK = 'M';
+    public static final char OP_UNMARK = 'U';
+    public static final char OP_DELETE = 'D';
+    private static final int LINE_SEPARATOR_LENGTH = System.lineSeparator().length();
+
+    private final String filePath;
+    private FileOutputStream out;
+    private BufferedWriter writer;
+
+    /**
+     * Creates a journal backed by the given file.
+     * The file is only created once the first record is appended.
+     *
+     * @param filePath The path of the journal file.
+     */
+    public Journal(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Gets the path of the journal file.
+     *
+     * @return The journal file path.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Checks whether the journal file exists on disk.
+     *
+     * @return true if there is a journal file, false otherwise.
+     */
+    public boolean exists() {
+        return new File(filePath).exists();
+    }
+
+    /**
+     * Appends a single record to the journal's buffer.
+     * The record only reaches the file once {@link #flush()} or {@link #sync()} is called.
+     *
+     * @param seq The sequence number of the record.
+     * @param op The operation code of the record.
+     * @param payload The operation-specific payload.
+     * @return The size of the record in bytes, as encoded in UTF-8.
+     * @throws IOException If the record cannot be written.
+     */
+    public int append(long seq, char op, String payload) throws IOException {
+        if (writer == null) {
+            out = new FileOutputStream(filePath, true);
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+        String seqText = Long.toString(seq);
+        writer.write(seqText);
+        writer.write(' ');
+        writer.write(op);
+        writer.write(' ');
+        writer.write(payload);
+        writer.newLine();
+        return seqText.length() + 3 + encodedLength(payload) + LINE_SEPARATOR_LENGTH;
+    }
+
+    /**
+     * Counts the bytes of a text in UTF-8 without encoding it.
+     */
+    private static int encodedLength(String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800) {
+                // A surrogate pair takes 4 bytes for its 2 chars, any other char 3 bytes
+                length += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Hands all buffered records to the OS in a single write.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes all buffered records and forces them to the storage device.
+     *
+     * @throws IOException If the records cannot be written or forced.
+     */
+    public void sync() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            out.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Reads all complete records currently in the journal.
+     *
+     * @return The records in the order they were appended.
+     * @throws IOException If the journal cannot be read.
+     */
+    public ArrayList<Record> readRecords() throws IOException {
+        ArrayList<Record> records = new ArrayList<>();
+        if (!exists()) {
+            return records;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Record record = Record.parse(line);
+                if (record == null) {
+                    // A torn write from a crash can only be the last line
+                    break;
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Discards every record in the journal.
+     *
+     * @throws IOException If the journal cannot be truncated.
+     */
+    public void truncate() throws IOException {
+        close();
+        new FileWriter(filePath, false).close();
+    }
+
+    /**
+     * Moves the journal file to the path of another journal, leaving this journal empty.
+     * Appends made after the rename start a fresh file.
+     *
+     * @param target The journal that takes over the current records.
+     * @throws IOException If the journal cannot be renamed.
+     */
+    public void renameTo(Journal target) throws IOException {
+        close();
+        try {
+            Files.move(Paths.get(filePath), Paths.get(target.filePath), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(Paths.get(filePath), Paths.get(target.filePath));
+        }
+    }
+
+    /**
+     * Deletes the journal file, if it exists.
+     *
+     * @throws IOException If the journal cannot be deleted.
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(Paths.get(filePath));
+    }
+
+    /**
+     * Closes the underlying writer, if open.
+     *
+     * @throws IOException If the writer cannot be closed.
+     */
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            out = null;
+        }
+    }
+
+    /**
+     * A single parsed journal record.
+     */
+    public static class Record {
+        private final long seq;
+        private final char op;
+        private final String payload;
+
+        private Record(long seq, char op, String payload) {
+            this.seq = seq;
+            this.op = op;
+            this.payload = payload;
+        }
+
+        private static Record parse(String line) {
+            int firstSpace = line.indexOf(' ');
+            if (firstSpace <= 0 || line.length() < firstSpace + 3 || line.charAt(firstSpace + 2) != ' ') {
+                return null;
+            }
+            try {
+                long seq = Long.parseLong(line.substring(0, firstSpace));
+                return new Record(seq, line.charAt(firstSpace + 1), line.substring(firstSpace + 3));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public char getOp() {
+            return op;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+    }
+}
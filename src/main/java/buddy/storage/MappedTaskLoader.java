@@ -0,0 +1,347 @@
+package buddy.storage;
+
+import buddy.data.Deadline;
+import buddy.data.Event;
+import buddy.data.Task;
+import buddy.data.Todo;
+import buddy.util.BuddyException;
+import buddy.util.FastDateParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loads large text task files by memory-mapping them and scanning for line and
+ * field boundaries directly in the mapped bytes, parsing independent chunks of
+ * lines in parallel.
+ * Descriptions are not decoded here; each task gets a copy of its description bytes
+ * and decodes them the first time the description is needed. Tasks copy their bytes
+ * rather than keep slices of the mapping, so no task refers into the mapping and the
+ * data file can be replaced or truncated afterwards without faulting a later read.
+ * The mapping itself is released when the garbage collector frees its buffer.
+ */
+public class MappedTaskLoader {
+    private static final long MAX_REGION_SIZE = 1L << 30;
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MAX_FIELDS = 6;
+    private static final byte[] SEQ_HEADER = "# seq ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEXT_ID_HEADER = "# next-id ".getBytes(StandardCharsets.US_ASCII);
+    private static final int ISO_DATE_TIME_LENGTH = "yyyy-MM-ddTHH:mm".length();
+
+    /**
+     * Reads all tasks from a text task file.
+     * Each mapped region is cut into newline-aligned chunks that are parsed in
+     * parallel on the common fork-join pool and then concatenated in file order.
+     * Lines that cannot be parsed are skipped and reported instead of failing the load.
+     *
+     * @param path The file to read.
+     * @param tasks The list to append the tasks to.
+     * @param warnings The list to append a message to for every skipped line.
+     * @return The snapshot header, with 0 for each value the file does not record.
+     * @throws IOException If the file cannot be mapped.
+     * @throws BuddyException If a line is too long to be mapped.
+     */
+    public static SnapshotHeader load(Path path, ArrayList<Task> tasks, List<String> warnings)
+            throws IOException, BuddyException {
+        long seq = 0;
+        long nextId = 0;
+        int lineNumber = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long regionSize = Math.min(size - position, MAX_REGION_SIZE);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                boolean isLastRegion = position + regionSize == size;
+
+                // Only parse up to the last complete line unless this is the end of the file
+                int limit = isLastRegion ? (int) regionSize : lastLineEnd(region, (int) regionSize);
+                if (limit == 0) {
+                    throw new BuddyException("Line too long in task file: " + path);
+                }
+
+                List<Chunk> chunks = splitIntoChunks(region, limit);
+                chunks.parallelStream().forEach(chunk -> chunk.parse(region));
+                for (Chunk chunk : chunks) {
+                    tasks.addAll(chunk.tasks);
+                    for (int i = 0; i < chunk.badLines.size(); i++) {
+                        warnings.add("Line " + (lineNumber + chunk.badLines.get(i)) + ": "
+                                + chunk.badLineMessages.get(i));
+                    }
+                    lineNumber += chunk.lineCount;
+                    seq = Math.max(seq, chunk.seq);
+                    nextId = Math.max(nextId, chunk.nextId);
+                }
+
+                // The unfinished line is picked up again at the start of the next region
+                position += limit;
+            }
+        }
+        return new SnapshotHeader(seq, nextId);
+    }
+
+    private static int lastLineEnd(ByteBuffer buffer, int limit) {
+        for (int i = limit - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static List<Chunk> splitIntoChunks(ByteBuffer buffer, int limit) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunkCount = Math.max(1, Math.min(parallelism * CHUNKS_PER_THREAD, limit / MIN_CHUNK_SIZE));
+
+        List<Chunk> chunks = new ArrayList<>(chunkCount);
+        int chunkStart = 0;
+        for (int k = 1; k <= chunkCount && chunkStart < limit; k++) {
+            int chunkEnd = k == chunkCount ? limit : (int) ((long) limit * k / chunkCount);
+            // Move the cut forward so that it falls right after a newline
+            while (chunkEnd < limit && chunkEnd > chunkStart && buffer.get(chunkEnd - 1) != '\n') {
+                chunkEnd++;
+            }
+            if (chunkEnd > chunkStart) {
+                chunks.add(new Chunk(chunkStart, chunkEnd));
+                chunkStart = chunkEnd;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Parses the line in {@code [start, end)} and appends its task, if any, to the chunk.
+     * A snapshot header line sets the chunk's value for it instead.
+     */
+    private static void parseLine(ByteBuffer buffer, int start, int end, Chunk chunk) throws BuddyException {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (isBlank(buffer, start, end)) {
+            return;
+        }
+        if (startsWith(buffer, start, end, SEQ_HEADER)) {
+            chunk.seq = Math.max(chunk.seq, parseHeader(buffer, start, end, SEQ_HEADER.length));
+            return;
+        }
+        if (startsWith(buffer, start, end, NEXT_ID_HEADER)) {
+            chunk.nextId = Math.max(chunk.nextId, parseHeader(buffer, start, end, NEXT_ID_HEADER.length));
+            return;
+        }
+
+        // Field boundaries as [fieldStarts[i], fieldEnds[i]), split on " | " like the text parser
+        int[] fieldStarts = new int[MAX_FIELDS];
+        int[] fieldEnds = new int[MAX_FIELDS];
+        int fieldCount = 0;
+        int fieldStart = start;
+        for (int i = start; i + 2 < end && fieldCount < MAX_FIELDS - 1; i++) {
+            if (buffer.get(i) == ' ' && buffer.get(i + 1) == '|' && buffer.get(i + 2) == ' ') {
+                fieldStarts[fieldCount] = fieldStart;
+                fieldEnds[fieldCount] = i;
+                fieldCount++;
+                fieldStart = i + 3;
+                i += 2;
+            }
+        }
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = nextSeparatorOrEnd(buffer, fieldStart, end);
+        fieldCount++;
+
+        try {
+            // Lines written before tasks had IDs start with the type instead
+            long id = parseId(buffer, fieldStarts[0], fieldEnds[0]);
+            if (id >= 0) {
+                fieldCount--;
+                System.arraycopy(fieldStarts, 1, fieldStarts, 0, fieldCount);
+                System.arraycopy(fieldEnds, 1, fieldEnds, 0, fieldCount);
+            }
+            Task task = toTask(buffer, fieldStarts, fieldEnds, fieldCount);
+            if (id >= 0) {
+                task.setId(id);
+            }
+            chunk.tasks.add(task);
+        } catch (RuntimeException | BuddyException e) {
+            throw new BuddyException("Error parsing task data: " + decode(buffer, start, end));
+        }
+    }
+
+    private static long parseHeader(ByteBuffer buffer, int start, int end, int nameLength) throws BuddyException {
+        try {
+            return Long.parseLong(decode(buffer, start + nameLength, end).trim());
+        } catch (NumberFormatException e) {
+            throw new BuddyException("Corrupted snapshot header: " + decode(buffer, start, end));
+        }
+    }
+
+    private static Task toTask(ByteBuffer buffer, int[] starts, int[] ends, int fieldCount) throws BuddyException {
+        if (fieldCount < 3 || ends[0] - starts[0] != 1) {
+            throw new BuddyException("Corrupted task data");
+        }
+        byte type = buffer.get(starts[0]);
+        boolean isDone = ends[1] - starts[1] == 1 && buffer.get(starts[1]) == '1';
+        byte[] description = new byte[ends[2] - starts[2]];
+        buffer.get(starts[2], description);
+
+        Task task;
+        switch (type) {
+            case 'T':
+                task = new Todo(description);
+                break;
+            case 'D':
+                if (fieldCount < 4) {
+                    throw new BuddyException("Corrupted deadline data");
+                }
+                LocalDateTime by = parseIsoDateTime(buffer, starts[3], ends[3]);
+                task = by != null
+                        ? new Deadline(description, by)
+                        : new Deadline(decode(buffer, starts[2], ends[2]), decode(buffer, starts[3], ends[3]));
+                break;
+            case 'E':
+                if (fieldCount < 5) {
+                    throw new BuddyException("Corrupted event data");
+                }
+                LocalDateTime from = parseIsoDateTime(buffer, starts[3], ends[3]);
+                LocalDateTime to = parseIsoDateTime(buffer, starts[4], ends[4]);
+                task = from != null && to != null
+                        ? new Event(description, from, to)
+                        : new Event(decode(buffer, starts[2], ends[2]),
+                                decode(buffer, starts[3], ends[3]), decode(buffer, starts[4], ends[4]));
+                break;
+            default:
+                throw new BuddyException("Unknown task type: " + (char) type);
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Parses the storage shape {@code yyyy-MM-ddTHH:mm} straight from the bytes.
+     *
+     * @return The parsed date and time, or null if the bytes have a different shape.
+     */
+    private static LocalDateTime parseIsoDateTime(ByteBuffer buffer, int start, int end) {
+        if (end - start != ISO_DATE_TIME_LENGTH || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-'
+                || buffer.get(start + 10) != 'T' || buffer.get(start + 13) != ':') {
+            return null;
+        }
+        int year = digits(buffer, start, 4);
+        int month = digits(buffer, start + 5, 2);
+        int day = digits(buffer, start + 8, 2);
+        int hour = digits(buffer, start + 11, 2);
+        int minute = digits(buffer, start + 14, 2);
+        return FastDateParser.toDateTime(year, month, day, hour, minute);
+    }
+
+    private static int digits(ByteBuffer buffer, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a field made up only of decimal digits.
+     *
+     * @return The value of the field, or -1 if it is empty or not a number.
+     */
+    private static long parseId(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int nextSeparatorOrEnd(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i + 2 < end; i++) {
+            if (buffer.get(i) == ' ' && buffer.get(i + 1) == '|' && buffer.get(i + 2) == ' ') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((buffer.get(i) & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        return StandardCharsets.UTF_8.decode(buffer.slice(start, end - start)).toString();
+    }
+
+    /**
+     * A newline-aligned byte range of the file and the result of parsing it.
+     */
+    private static class Chunk {
+        private final int start;
+        private final int end;
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private final ArrayList<Integer> badLines = new ArrayList<>();
+        private final ArrayList<String> badLineMessages = new ArrayList<>();
+        private int lineCount;
+        private long seq;
+        private long nextId;
+
+        private Chunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private void parse(ByteBuffer buffer) {
+            int lineStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end ? lineStart < end : buffer.get(i) == '\n') {
+                    lineCount++;
+                    try {
+                        parseLine(buffer, lineStart, i, this);
+                    } catch (BuddyException e) {
+                        badLines.add(lineCount);
+                        badLineMessages.add(e.getMessage());
+                    }
+                    lineStart = i + 1;
+                }
+            }
+        }
+    }
+}
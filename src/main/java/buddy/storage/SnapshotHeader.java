@@ -0,0 +1,40 @@
+package buddy.storage;
+
+/**
+ * The values a snapshot records in its header besides its tasks.
+ */
+public class SnapshotHeader {
+    private final long seq;
+    private final long nextId;
+
+    /**
+     * Creates a header.
+     *
+     * @param seq The journal sequence number folded into the snapshot, or 0 if there is none.
+     * @param nextId The ID the next new task gets, or 0 if the snapshot does not record it.
+     */
+    public SnapshotHeader(long seq, long nextId) {
+        this.seq = seq;
+        this.nextId = nextId;
+    }
+
+    /**
+     * Gets the journal sequence number folded into the snapshot.
+     *
+     * @return The sequence number, or 0 if there is none.
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * Gets the ID the next new task gets, which is past the ID of every task ever added,
+     * including deleted ones.
+     *
+     * @return The next ID, or 0 if the snapshot does not record it, in which case it
+     *         follows the last task's ID.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+}
@@ -1,24 +1,66 @@
 package buddy.storage;
 
 import buddy.data.Deadline;
+import buddy.data.DescriptionPool;
 import buddy.data.Event;
 import buddy.data.Task;
+import buddy.data.TaskList;
 import buddy.data.Todo;
 import buddy.util.BuddyException;
+import buddy.util.CommandMetrics;
 
 import java.io.*;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 
 /**
  * Handles data persistence for the Buddy application.
  * Responsible for saving tasks to a file and loading them back.
+ * In journaled mode, each mutation is appended to a {@link Journal} and every
+ * {@value #SNAPSHOT_INTERVAL} records the journal is folded into a new snapshot
+ * by a background {@link Compactor}. With asynchronous writes enabled, journal
+ * appends are handed to an {@link AsyncWriter} that group-commits them off the
+ * command thread.
+ * Snapshots are always written to a temporary file and atomically renamed over the
+ * old one, so a crash mid-save never leaves a truncated data file behind.
+ * Text files larger than {@value #MAPPED_LOAD_THRESHOLD} bytes are loaded through
+ * a {@link MappedTaskLoader} instead of a {@link Scanner}, except on Windows, which
+ * refuses to replace a file that is still mapped and so could not save over it until
+ * the mapping is collected.
+ * Each task is stored with its persistent ID, and journal records refer to tasks by ID.
+ * Snapshots also record the ID the next new task gets whenever it cannot be told from
+ * their last task, so that the IDs of deleted tasks are not handed out again after a restart.
+ * Files and journals written before tasks had IDs are still read; their tasks are
+ * numbered in list order on load.
  */
 public class Storage {
+    private static final int SNAPSHOT_INTERVAL = 1000;
+    private static final String SEQ_HEADER = "# seq ";
+    private static final String NEXT_ID_HEADER = "# next-id ";
+    private static final String ID_PREFIX = "#";
+    private static final long MAPPED_LOAD_THRESHOLD = 1 << 20;
+    private static final boolean IS_MAPPING_SUPPORTED =
+            !System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+
     private final String filePath;
     private final String directory;
+    private final Journal journal;
+    private final Journal compactingJournal;
+    private final Compactor compactor;
+    private AsyncWriter<PendingWrite> asyncWriter;
+    private boolean isJournaled;
+    private boolean isBinary;
+    private boolean isDeferred;
+    private List<Task> deferredTasks;
+    private long lastSeq;
+    private long nextId = 1;
+    private int recordsSinceSnapshot;
+    private final ArrayList<String> loadWarnings = new ArrayList<>();
 
     /**
      * Creates a new Storage object with the specified file path.
@@ -27,44 +69,175 @@ public class Storage {
      */
     public Storage(String filePath) {
         this.filePath = filePath;
-        this.directory = filePath.substring(0, filePath.lastIndexOf('/'));
+        Path parent = Paths.get(filePath).getParent();
+        this.directory = parent == null ? "." : parent.toString();
+        this.journal = new Journal(filePath + ".journal");
+        this.compactingJournal = new Journal(filePath + ".journal.compacting");
+        this.compactor = new Compactor();
+    }
+
+    /**
+     * Defers all saving until the storage is closed, which then writes one snapshot.
+     * Meant for batch runs, where changes made before a crash need not survive.
+     */
+    public void deferWrites() {
+        this.isDeferred = true;
+    }
+
+    /**
+     * Switches this storage to journaled mode, where each mutation appends one
+     * record to the journal instead of rewriting the whole file.
+     */
+    public void enableJournal() {
+        this.isJournaled = true;
     }
 
     /**
-     * Loads tasks from the storage file.
+     * Makes snapshots use the compact {@link BinaryTaskCodec} format instead of text.
+     * Loading detects the format of the existing file either way.
+     */
+    public void enableBinaryFormat() {
+        this.isBinary = true;
+    }
+
+    /**
+     * Switches this storage to journaled mode with a dedicated writer thread.
+     * Mutations are queued and written in batches, and forced to disk according
+     * to the given durability policy.
+     *
+     * @param policy When queued changes are forced to disk.
+     * @param intervalMillis The force interval used with {@link DurabilityPolicy#INTERVAL}.
+     */
+    public void enableAsyncWrites(DurabilityPolicy policy, long intervalMillis) {
+        enableJournal();
+        this.asyncWriter = new AsyncWriter<>(new AsyncWriter.Sink<>() {
+            @Override
+            public void write(PendingWrite write) throws BuddyException {
+                writeRecord(write);
+            }
+
+            @Override
+            public void flush(boolean isForced) throws BuddyException {
+                flushJournal(isForced);
+            }
+        }, policy, intervalMillis);
+    }
+
+    /**
+     * Loads tasks from the storage file, replaying any journal records
+     * that were appended after the snapshot was written.
+     * Corrupted lines are skipped rather than failing the whole load; they are
+     * reported through {@link #getLoadWarnings()}.
      *
      * @return A list of tasks read from the file.
-     * @throws BuddyException If there's an error reading the file or parsing the tasks.
+     * @throws BuddyException If there's an error reading the file.
      */
     public ArrayList<Task> load() throws BuddyException {
+        return readTasks(true);
+    }
+
+    /**
+     * Reads tasks from the storage file and its journal like {@link #load()}, but leaves
+     * every file as it is: a missing file is not created and a journal that cannot be
+     * fully replayed is not folded into a new snapshot.
+     *
+     * @return A list of tasks read from the file.
+     * @throws BuddyException If there's an error reading the file.
+     */
+    public ArrayList<Task> read() throws BuddyException {
+        return readTasks(false);
+    }
+
+    private ArrayList<Task> readTasks(boolean isRepairing) throws BuddyException {
         ArrayList<Task> tasks = new ArrayList<>();
+        loadWarnings.clear();
         try {
-            // Ensure directory exists
-            createDirectoryIfNeeded();
-
-            // Check if file exists, if not create a new one
             File file = new File(filePath);
+            SnapshotHeader header = new SnapshotHeader(0, 0);
             if (!file.exists()) {
-                file.createNewFile();
-                return tasks;
+                if (isRepairing) {
+                    createDirectoryIfNeeded();
+                    file.createNewFile();
+                }
+            } else if (BinaryTaskCodec.isBinaryFile(file)) {
+                header = BinaryTaskCodec.read(file, tasks);
+            } else if (IS_MAPPING_SUPPORTED && file.length() >= MAPPED_LOAD_THRESHOLD) {
+                header = MappedTaskLoader.load(file.toPath(), tasks, loadWarnings);
+            } else {
+                header = readTextSnapshot(file, tasks);
             }
+            long snapshotSeq = header.getSeq();
+            lastSeq = snapshotSeq;
+            TaskList.assignIds(tasks);
+            nextId = Math.max(header.getNextId(), nextIdAfter(tasks));
+            // A compaction interrupted by a crash leaves its rotated journal behind
+            boolean isReplayed = replayJournal(compactingJournal, tasks, snapshotSeq)
+                    && replayJournal(journal, tasks, snapshotSeq);
+            if (!isReplayed && isRepairing) {
+                // Fold what could be recovered so the bad record is never replayed again
+                writeSnapshotAndResetJournal(tasks, lastSeq, nextId);
+            }
+        } catch (IOException e) {
+            throw new BuddyException("Error loading tasks: " + e.getMessage());
+        }
+        return tasks;
+    }
 
-            // Read file and load tasks
-            Scanner fileScanner = new Scanner(file);
-            while (fileScanner.hasNextLine()) {
-                String line = fileScanner.nextLine();
-                if (!line.trim().isEmpty()) {
+    /**
+     * Gets the problems found by the last {@link #load()}, one message per skipped line or record.
+     *
+     * @return The load warnings, empty if the data loaded cleanly.
+     */
+    public List<String> getLoadWarnings() {
+        return loadWarnings;
+    }
+
+    /**
+     * Gets the ID the next new task must get so that no ID is handed out twice, as of the
+     * last load and the additions saved since. It is past the ID of every task ever added,
+     * including tasks that have since been deleted.
+     *
+     * @return The next ID.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Records that IDs below the given one have been handed out, for when tasks are saved
+     * somewhere other than where they were loaded from.
+     *
+     * @param nextId The ID the next new task gets.
+     */
+    public void reserveIdsBelow(long nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    private SnapshotHeader readTextSnapshot(File file, ArrayList<Task> tasks) throws IOException {
+        long snapshotSeq = 0;
+        long snapshotNextId = 0;
+        int lineNumber = 0;
+        Scanner fileScanner = new Scanner(file);
+        while (fileScanner.hasNextLine()) {
+            String line = fileScanner.nextLine();
+            lineNumber++;
+            try {
+                if (line.startsWith(SEQ_HEADER)) {
+                    snapshotSeq = parseHeader(line, SEQ_HEADER);
+                } else if (line.startsWith(NEXT_ID_HEADER)) {
+                    snapshotNextId = parseHeader(line, NEXT_ID_HEADER);
+                } else if (!line.trim().isEmpty()) {
                     Task task = parseTaskFromFileLine(line);
                     if (task != null) {
                         tasks.add(task);
                     }
                 }
+            } catch (BuddyException e) {
+                loadWarnings.add("Line " + lineNumber + ": " + e.getMessage());
             }
-            fileScanner.close();
-        } catch (IOException e) {
-            throw new BuddyException("Error loading tasks: " + e.getMessage());
         }
-        return tasks;
+        fileScanner.close();
+        return new SnapshotHeader(snapshotSeq, snapshotNextId);
     }
 
     /**
@@ -73,26 +246,315 @@ public class Storage {
      * @param tasks The list of tasks to save.
      * @throws BuddyException If there's an error writing to the file.
      */
-    public void save(ArrayList<Task> tasks) throws BuddyException {
+    public void save(List<Task> tasks) throws BuddyException {
+        long start = System.nanoTime();
         try {
-            // Ensure directory exists
-            createDirectoryIfNeeded();
+            saveSnapshot(tasks);
+        } finally {
+            CommandMetrics.addSaveTime(System.nanoTime() - start);
+        }
+    }
+
+    private void saveSnapshot(List<Task> tasks) throws BuddyException {
+        if (asyncWriter != null) {
+            // Queued records must not land in the journal after it is truncated
+            asyncWriter.sync();
+        }
+        // Never race the background compactor for the snapshot file
+        compactor.awaitCompletion();
+        writeSnapshotAndResetJournal(tasks, lastSeq, nextId);
+        recordsSinceSnapshot = 0;
+    }
+
+    /**
+     * Persists the addition of a task.
+     *
+     * @param tasks The full list of tasks after the addition.
+     * @param task The task that was added.
+     * @throws BuddyException If there's an error writing to the file.
+     */
+    public void saveAdd(List<Task> tasks, Task task) throws BuddyException {
+        nextId = Math.max(nextId, task.getId() + 1);
+        appendOrSave(tasks, Journal.OP_ADD, convertTaskToFileLine(task));
+    }
+
+    /**
+     * Persists a change to the completion status of a task.
+     *
+     * @param tasks The full list of tasks after the change.
+     * @param task The changed task.
+     * @param isDone The new completion status.
+     * @throws BuddyException If there's an error writing to the file.
+     */
+    public void saveMark(List<Task> tasks, Task task, boolean isDone) throws BuddyException {
+        appendOrSave(tasks, isDone ? Journal.OP_MARK : Journal.OP_UNMARK, ID_PREFIX + task.getId());
+    }
+
+    /**
+     * Persists the deletion of a task.
+     *
+     * @param tasks The full list of tasks after the deletion.
+     * @param task The task that was deleted.
+     * @throws BuddyException If there's an error writing to the file.
+     */
+    public void saveDelete(List<Task> tasks, Task task) throws BuddyException {
+        appendOrSave(tasks, Journal.OP_DELETE, ID_PREFIX + task.getId());
+    }
+
+    /**
+     * Writes any deferred changes and releases any file handles held by this storage.
+     *
+     * @throws BuddyException If there's an error saving the tasks or closing the journal.
+     */
+    public void close() throws BuddyException {
+        if (deferredTasks != null) {
+            List<Task> tasks = deferredTasks;
+            deferredTasks = null;
+            save(tasks);
+        }
+        try {
+            if (asyncWriter != null) {
+                asyncWriter.close();
+            }
+            compactor.shutdown();
+            journal.close();
+        } catch (IOException e) {
+            throw new BuddyException("Error closing journal: " + e.getMessage());
+        }
+    }
+
+    private void appendOrSave(List<Task> tasks, char op, String payload) throws BuddyException {
+        if (isDeferred) {
+            deferredTasks = tasks;
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            if (isJournaled) {
+                append(tasks, op, payload);
+            } else {
+                saveSnapshot(tasks);
+            }
+        } finally {
+            CommandMetrics.addSaveTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Journals one change, handing it to the writer thread in asynchronous mode.
+     */
+    private void append(List<Task> tasks, char op, String payload) throws BuddyException {
+        ArrayList<Task> compactionCopy = null;
+        recordsSinceSnapshot++;
+        if (recordsSinceSnapshot >= SNAPSHOT_INTERVAL && !compactor.isBusy()) {
+            // Done flags may change after the copy is taken, but replaying the later
+            // mark/unmark records over the snapshot restores them regardless
+            compactionCopy = new ArrayList<>(tasks);
+            recordsSinceSnapshot = 0;
+        }
+        PendingWrite write = new PendingWrite(++lastSeq, op, payload, compactionCopy, nextId);
 
-            // Write tasks to file
-            FileWriter fileWriter = new FileWriter(filePath);
-            BufferedWriter writer = new BufferedWriter(fileWriter);
+        if (asyncWriter != null) {
+            asyncWriter.submit(write);
+            return;
+        }
+        writeRecord(write);
+        flushJournal(false);
+    }
 
-            for (Task task : tasks) {
-                writer.write(convertTaskToFileLine(task));
-                writer.newLine();
+    /**
+     * Appends one record to the journal, rotating it for compaction if requested.
+     * In asynchronous mode this only ever runs on the writer thread.
+     */
+    private void writeRecord(PendingWrite write) throws BuddyException {
+        try {
+            createDirectoryIfNeeded();
+            CommandMetrics.addBytesWritten(journal.append(write.seq, write.op, write.payload));
+        } catch (IOException e) {
+            throw new BuddyException("Error saving tasks: " + e.getMessage());
+        }
+        if (write.compactionCopy != null) {
+            startCompaction(write.compactionCopy, write.seq, write.nextId);
+        }
+    }
+
+    private void flushJournal(boolean isForced) throws BuddyException {
+        try {
+            if (isForced) {
+                journal.sync();
+            } else {
+                journal.flush();
             }
+        } catch (IOException e) {
+            throw new BuddyException("Error saving tasks: " + e.getMessage());
+        }
+    }
 
-            writer.close();
+    /**
+     * Rotates the live journal aside and folds it into a new snapshot in the background.
+     * Only the rotation happens on the calling thread.
+     */
+    private void startCompaction(ArrayList<Task> tasks, long seq, long nextId) throws BuddyException {
+        // Surface the failure of the previous compaction, if any
+        compactor.awaitCompletion();
+        if (compactingJournal.exists()) {
+            // The previous compaction failed half-way, so fall back to a synchronous save
+            writeSnapshotAndResetJournal(tasks, seq, nextId);
+            return;
+        }
+        try {
+            journal.renameTo(compactingJournal);
+        } catch (IOException e) {
+            throw new BuddyException("Error rotating journal: " + e.getMessage());
+        }
+        compactor.submit(() -> {
+            writeSnapshot(tasks, seq, nextId);
+            compactingJournal.delete();
+        });
+    }
+
+    private void writeSnapshotAndResetJournal(List<Task> tasks, long seq, long nextId) throws BuddyException {
+        try {
+            writeSnapshot(tasks, seq, nextId);
+            if (journal.exists()) {
+                journal.truncate();
+            }
+            compactingJournal.delete();
         } catch (IOException e) {
             throw new BuddyException("Error saving tasks: " + e.getMessage());
         }
     }
 
+    /**
+     * Writes a full snapshot to a temporary file, forces it to disk and then
+     * atomically swaps it in place of the current data file.
+     */
+    private void writeSnapshot(List<Task> tasks, long seq, long nextId) throws IOException {
+        createDirectoryIfNeeded();
+        Path target = Paths.get(filePath);
+        Path temp = Paths.get(filePath + ".tmp");
+
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            if (isBinary) {
+                DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out));
+                BinaryTaskCodec.write(dataOut, tasks, seq, nextId);
+                dataOut.flush();
+            } else {
+                writeTextSnapshot(new BufferedWriter(new OutputStreamWriter(out)), tasks, seq, nextId);
+            }
+            out.getChannel().force(true);
+            CommandMetrics.addBytesWritten(out.getChannel().size());
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void writeTextSnapshot(BufferedWriter writer, List<Task> tasks, long seq, long nextId)
+            throws IOException {
+        if (seq > 0) {
+            // Journal records up to this sequence number are folded into the snapshot
+            writer.write(SEQ_HEADER + seq);
+            writer.newLine();
+        }
+        if (nextId > nextIdAfter(tasks)) {
+            // Tasks at the end of the list were deleted, so their IDs cannot be told from the rest
+            writer.write(NEXT_ID_HEADER + nextId);
+            writer.newLine();
+        }
+        for (Task task : tasks) {
+            writer.write(convertTaskToFileLine(task));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Replays the records of a journal over the loaded snapshot.
+     * Records build on each other, so replay stops at the first record that cannot be applied.
+     *
+     * @return true if every record was applied, false if replay stopped early.
+     */
+    private boolean replayJournal(Journal journal, ArrayList<Task> tasks, long snapshotSeq) throws IOException {
+        ArrayList<Journal.Record> records = journal.readRecords();
+        for (int i = 0; i < records.size(); i++) {
+            Journal.Record record = records.get(i);
+            if (record.getSeq() <= snapshotSeq) {
+                // Already folded into the snapshot before a crash could truncate the journal
+                continue;
+            }
+            try {
+                applyRecord(tasks, record);
+                lastSeq = record.getSeq();
+            } catch (BuddyException e) {
+                int skipped = records.size() - i;
+                loadWarnings.add(e.getMessage() + " (skipped " + skipped + " journal records)");
+                lastSeq = Math.max(lastSeq, records.get(records.size() - 1).getSeq());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void applyRecord(ArrayList<Task> tasks, Journal.Record record) throws BuddyException {
+        try {
+            switch (record.getOp()) {
+                case Journal.OP_ADD:
+                    Task task = parseTaskFromFileLine(record.getPayload());
+                    if (task.getId() < nextId) {
+                        task.setId(nextId);
+                    }
+                    tasks.add(task);
+                    nextId = task.getId() + 1;
+                    break;
+                case Journal.OP_MARK:
+                    tasks.get(indexOfRecordTask(tasks, record)).markAsDone();
+                    break;
+                case Journal.OP_UNMARK:
+                    tasks.get(indexOfRecordTask(tasks, record)).markAsUndone();
+                    break;
+                case Journal.OP_DELETE:
+                    tasks.remove(indexOfRecordTask(tasks, record));
+                    break;
+                default:
+                    throw new BuddyException("Unknown journal operation: " + record.getOp());
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new BuddyException("Corrupted journal record: " + record.getSeq());
+        }
+    }
+
+    /**
+     * Resolves the task a mark, unmark or delete record refers to, either by ID or,
+     * for journals written before tasks had IDs, by position.
+     */
+    private int indexOfRecordTask(ArrayList<Task> tasks, Journal.Record record) throws BuddyException {
+        String payload = record.getPayload();
+        if (!payload.startsWith(ID_PREFIX)) {
+            return Integer.parseInt(payload);
+        }
+        int index = TaskList.indexOfId(tasks, Long.parseLong(payload.substring(ID_PREFIX.length())));
+        if (index < 0) {
+            throw new BuddyException("Corrupted journal record: " + record.getSeq());
+        }
+        return index;
+    }
+
+    private static long nextIdAfter(List<Task> tasks) {
+        return tasks.isEmpty() ? 1 : tasks.get(tasks.size() - 1).getId() + 1;
+    }
+
+    private long parseHeader(String line, String name) throws BuddyException {
+        try {
+            return Long.parseLong(line.substring(name.length()).trim());
+        } catch (NumberFormatException e) {
+            throw new BuddyException("Corrupted snapshot header: " + line);
+        }
+    }
+
     private void createDirectoryIfNeeded() throws IOException {
         File directory = new File(this.directory);
         if (!directory.exists()) {
@@ -109,14 +571,17 @@ public class Storage {
      */
     private Task parseTaskFromFileLine(String line) throws BuddyException {
         try {
-            String[] parts = line.split(" \\| ");
+            String[] fields = line.split(" \\| ");
+            // Lines written before tasks had IDs start with the type instead
+            boolean hasId = !fields[0].isEmpty() && Character.isDigit(fields[0].charAt(0));
+            String[] parts = hasId ? Arrays.copyOfRange(fields, 1, fields.length) : fields;
             if (parts.length < 3) {
                 throw new BuddyException("Corrupted task data: " + line);
             }
 
             String type = parts[0];
             boolean isDone = parts[1].equals("1");
-            String description = parts[2];
+            String description = DescriptionPool.shared().intern(parts[2]);
 
             Task task;
             switch (type) {
@@ -142,6 +607,9 @@ public class Storage {
             if (isDone) {
                 task.markAsDone();
             }
+            if (hasId) {
+                task.setId(Long.parseLong(fields[0]));
+            }
             return task;
         } catch (Exception e) {
             throw new BuddyException("Error parsing task data: " + line);
@@ -151,6 +619,11 @@ public class Storage {
     private String convertTaskToFileLine(Task task) {
         StringBuilder sb = new StringBuilder();
 
+        // Persistent ID
+        if (task.getId() > 0) {
+            sb.append(task.getId()).append(" | ");
+        }
+
         // buddy.data.Task type
         if (task instanceof Todo) {
             sb.append("T");
@@ -178,4 +651,25 @@ public class Storage {
 
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * A journal record waiting to be written, optionally carrying the task list
+     * to fold into a new snapshot once the record is in the journal, along with
+     * the next ID as of that list.
+     */
+    private static class PendingWrite {
+        private final long seq;
+        private final char op;
+        private final String payload;
+        private final ArrayList<Task> compactionCopy;
+        private final long nextId;
+
+        private PendingWrite(long seq, char op, String payload, ArrayList<Task> compactionCopy, long nextId) {
+            this.seq = seq;
+            this.op = op;
+            this.payload = payload;
+            this.compactionCopy = compactionCopy;
+            this.nextId = nextId;
+        }
+    }
+}
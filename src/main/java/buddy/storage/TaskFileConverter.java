@@ -0,0 +1,92 @@
+package buddy.storage;
+
+import buddy.data.Task;
+import buddy.util.BuddyException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts task files between the text format and the binary format.
+ * The input format is detected automatically, and any journal next to the
+ * input file is folded into the converted output. The input file and its journal
+ * are only ever read. Lines of the input that cannot be read are skipped and reported
+ * as warnings, and the command line exits with status 1 if there were any.
+ */
+public class TaskFileConverter {
+    /**
+     * Converts a task file into the text format.
+     *
+     * @param inputPath The file to convert.
+     * @param outputPath The text file to write.
+     * @param warnings Receives a warning for every part of the input that was skipped.
+     * @return The number of tasks converted.
+     * @throws BuddyException If the input cannot be read or the output cannot be written.
+     */
+    public static int toText(String inputPath, String outputPath, List<String> warnings) throws BuddyException {
+        return convert(inputPath, outputPath, false, warnings);
+    }
+
+    /**
+     * Converts a task file into the binary format.
+     *
+     * @param inputPath The file to convert.
+     * @param outputPath The binary file to write.
+     * @param warnings Receives a warning for every part of the input that was skipped.
+     * @return The number of tasks converted.
+     * @throws BuddyException If the input cannot be read or the output cannot be written.
+     */
+    public static int toBinary(String inputPath, String outputPath, List<String> warnings) throws BuddyException {
+        return convert(inputPath, outputPath, true, warnings);
+    }
+
+    private static int convert(String inputPath, String outputPath, boolean isBinary, List<String> warnings)
+            throws BuddyException {
+        if (!new File(inputPath).exists()) {
+            throw new BuddyException("No such task file: " + inputPath);
+        }
+        Storage input = new Storage(inputPath);
+        ArrayList<Task> tasks = input.read();
+        warnings.addAll(input.getLoadWarnings());
+
+        Storage output = new Storage(outputPath);
+        output.reserveIdsBelow(input.getNextId());
+        if (isBinary) {
+            output.enableBinaryFormat();
+        }
+        output.save(tasks);
+        output.close();
+        return tasks.size();
+    }
+
+    /**
+     * Runs the converter from the command line.
+     * Usage: {@code TaskFileConverter --to-binary|--to-text <input> <output>}.
+     * Exits with status 1 if the input could not be converted in full.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("--to-binary") || args[0].equals("--to-text"))) {
+            System.out.println("Usage: TaskFileConverter --to-binary|--to-text <input> <output>");
+            return;
+        }
+        ArrayList<String> warnings = new ArrayList<>();
+        try {
+            int count = args[0].equals("--to-binary")
+                    ? toBinary(args[1], args[2], warnings)
+                    : toText(args[1], args[2], warnings);
+            for (String warning : warnings) {
+                System.out.println("Skipped: " + warning);
+            }
+            System.out.println("Converted " + count + " tasks to " + args[2]);
+        } catch (BuddyException e) {
+            System.out.println(e.getMessage());
+            System.exit(1);
+        }
+        if (!warnings.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
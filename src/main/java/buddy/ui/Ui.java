@@ -2,18 +2,42 @@ package buddy.ui;
 
 import buddy.data.Task;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
 
 /**
  * Handles the user interface for the Buddy application.
  * Responsible for displaying information to the user and collecting user input.
+ *
+ * <p>Output is rendered into one reusable buffer and written out in a single call.
+ * Interactively, the buffer is written before each command is read. In batch mode,
+ * commands come from a large buffered reader and the buffer is only written once it
+ * grows large or when {@link #flush()} is called at the end of the batch. Long task
+ * listings are written out in chunks as they are rendered, so they never pile up.
+ *
+ * <p>A UI may also serve a remote session, reading commands from and writing output
+ * to a connection instead of the console. Such a session flushes before each read,
+ * like an interactive one.
  */
 public class Ui {
     private Scanner scanner;
+    private BufferedReader commandReader;
+    private final boolean isBatch;
+    private final PrintStream out;
+    private final StringBuilder output = new StringBuilder();
     private static final String DIVIDER = "  ____________________________________________________________";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int MAX_WARNINGS_SHOWN = 10;
+    private static final int BATCH_READ_BUFFER_SIZE = 1 << 16;
+    private static final int OUTPUT_CHUNK_SIZE = 1 << 16;
     private static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy");
 
     /**
@@ -22,15 +46,72 @@ public class Ui {
      */
     public Ui() {
         scanner = new Scanner(System.in);
+        isBatch = false;
+        out = System.out;
+    }
+
+    /**
+     * Creates a UI instance that runs a batch of commands.
+     *
+     * @param commands The source of the commands, one per line.
+     */
+    public Ui(Reader commands) {
+        commandReader = new BufferedReader(commands, BATCH_READ_BUFFER_SIZE);
+        isBatch = true;
+        out = System.out;
+    }
+
+    /**
+     * Creates a UI instance for an interactive session over a connection.
+     *
+     * @param commands The source of the commands, one per line.
+     * @param replies The stream to write output to.
+     */
+    public Ui(Reader commands, PrintStream replies) {
+        commandReader = new BufferedReader(commands);
+        isBatch = false;
+        out = replies;
+    }
+
+    /**
+     * Checks whether this UI runs a batch of commands rather than an interactive session.
+     *
+     * @return true in batch mode, false otherwise.
+     */
+    public boolean isBatch() {
+        return isBatch;
     }
 
     /**
      * Reads a command from the user input.
+     * Any output still buffered is written first, so the user sees it before typing.
      *
-     * @return The command entered by the user.
+     * @return The command entered by the user, or null at the end of a batch or session.
      */
     public String readCommand() {
-        return scanner.nextLine();
+        if (!isBatch || output.length() >= OUTPUT_CHUNK_SIZE) {
+            flush();
+        }
+        if (scanner != null) {
+            return scanner.nextLine();
+        }
+        try {
+            return commandReader.readLine();
+        } catch (IOException e) {
+            showError("Error reading commands: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes out everything rendered since the last flush.
+     */
+    public void flush() {
+        if (output.length() > 0) {
+            out.append(output);
+            output.setLength(0);
+        }
+        out.flush();
     }
 
     /**
@@ -38,16 +119,25 @@ public class Ui {
      */
     public void showWelcome() {
         String logo = "buddy.Buddy";
-        System.out.println("Hello from\n" + logo);
-        System.out.println("Hello! I'm buddy.Buddy");
-        System.out.println("What can I do for you?");
+        println("Hello from\n" + logo);
+        println("Hello! I'm buddy.Buddy");
+        println("What can I do for you?");
+    }
+
+    /**
+     * Displays the address clients can connect to when the application runs as a server.
+     *
+     * @param port The port the server listens on.
+     */
+    public void showServerStarted(int port) {
+        println("Buddy is listening on localhost:" + port);
     }
 
     /**
      * Displays the goodbye message when the application exits.
      */
     public void showGoodbye() {
-        System.out.println("Bye. Hope to see you again soon!");
+        println("Bye. Hope to see you again soon!");
     }
 
     /**
@@ -56,8 +146,24 @@ public class Ui {
      * @param message The error message to display.
      */
     public void showLoadingError(String message) {
-        System.out.println("Error loading tasks: " + message);
-        System.out.println("Starting with an empty task list.");
+        println("Error loading tasks: " + message);
+        println("Starting with an empty task list.");
+    }
+
+    /**
+     * Displays the problems found while loading tasks, such as corrupted lines that were skipped.
+     *
+     * @param warnings The warning messages to display.
+     */
+    public void showLoadingWarnings(List<String> warnings) {
+        println("Skipped " + warnings.size() + " corrupted entries while loading tasks:");
+        int shown = Math.min(warnings.size(), MAX_WARNINGS_SHOWN);
+        for (int i = 0; i < shown; i++) {
+            println("  " + warnings.get(i));
+        }
+        if (warnings.size() > shown) {
+            println("  ...and " + (warnings.size() - shown) + " more.");
+        }
     }
 
     /**
@@ -66,9 +172,9 @@ public class Ui {
      * @param message The error message to display.
      */
     public void showError(String message) {
-        System.out.println(DIVIDER);
-        System.out.println("  " + message);
-        System.out.println(DIVIDER);
+        println(DIVIDER);
+        println("  " + message);
+        println(DIVIDER);
     }
 
     /**
@@ -76,73 +182,144 @@ public class Ui {
      *
      * @param tasks The list of tasks to display.
      */
-    public void showTaskList(ArrayList<Task> tasks) {
-        System.out.println(DIVIDER);
-        System.out.println("  Here are the tasks in your list:");
-        if (tasks.isEmpty()) {
-            System.out.println("  Your task list is empty!");
+    public void showTaskList(List<Task> tasks) {
+        showTaskListHeader();
+        int number = 0;
+        for (Task task : tasks) {
+            number++;
+            appendNumbered(number, task);
+        }
+        showTaskListFooter(tasks.size());
+    }
+
+    /**
+     * Displays the heading of a task listing whose tasks follow one at a time
+     * through {@link #showListedTask(Task, int)}.
+     */
+    public void showTaskListHeader() {
+        println(DIVIDER);
+        println("  Here are the tasks in your list:");
+    }
+
+    /**
+     * Displays one task of a listing, numbered by its position in the full list.
+     *
+     * @param task The task to display.
+     * @param index The zero-based index of the task in the full list.
+     */
+    public void showListedTask(Task task, int index) {
+        appendNumbered(index + 1, task);
+    }
+
+    /**
+     * Ends a full task listing whose tasks were shown through {@link #showListedTask(Task, int)}.
+     *
+     * @param taskCount The number of tasks listed.
+     */
+    public void showTaskListFooter(int taskCount) {
+        if (taskCount == 0) {
+            println("  Your task list is empty!");
+        }
+        println(DIVIDER);
+    }
+
+    /**
+     * Displays where one page of a task listing falls among all the matching tasks.
+     *
+     * @param page The one-based page number.
+     * @param pageSize The maximum number of tasks on a page.
+     * @param matchCount The total number of tasks matching the listing.
+     */
+    public void showTaskPageFooter(int page, int pageSize, int matchCount) {
+        int pageCount = (int) ((matchCount + (long) pageSize - 1) / pageSize);
+        if (matchCount == 0) {
+            println("  No matching tasks found.");
+        } else if (page > pageCount) {
+            println("  There is no page " + page + "; the last page is " + pageCount + ".");
         } else {
-            for (int i = 0; i < tasks.size(); i++) {
-                System.out.println("  " + (i + 1) + ". " + tasks.get(i));
-            }
+            println("  Page " + page + " of " + pageCount + " (" + matchCount
+                    + (matchCount == 1 ? " matching task)." : " matching tasks)."));
         }
-        System.out.println(DIVIDER);
+        println(DIVIDER);
     }
 
     public void showAddedTask(Task task, int totalTasks) {
-        System.out.println(DIVIDER);
-        System.out.println("  Got it. I've added this task:");
-        System.out.println("    " + task);
-        System.out.println("  Now you have " + totalTasks + " tasks in the list.");
-        System.out.println(DIVIDER);
+        println(DIVIDER);
+        println("  Got it. I've added this task as #" + task.getId() + ":");
+        println("    " + task);
+        println("  Now you have " + totalTasks + " tasks in the list.");
+        println(DIVIDER);
     }
 
     public void showMarkedTask(Task task) {
-        System.out.println(DIVIDER);
-        System.out.println("  Nice! I've marked this task as done:");
-        System.out.println("    " + task);
-        System.out.println(DIVIDER);
+        println(DIVIDER);
+        println("  Nice! I've marked this task as done:");
+        println("    " + task);
+        println(DIVIDER);
     }
 
     public void showUnmarkedTask(Task task) {
-        System.out.println(DIVIDER);
-        System.out.println("  OK, I've marked this task as not done yet:");
-        System.out.println("    " + task);
-        System.out.println(DIVIDER);
+        println(DIVIDER);
+        println("  OK, I've marked this task as not done yet:");
+        println("    " + task);
+        println(DIVIDER);
     }
 
     public void showDeletedTask(Task task, int totalTasks) {
-        System.out.println(DIVIDER);
-        System.out.println("  Noted. I've removed this task:");
-        System.out.println("    " + task);
-        System.out.println("  Now you have " + totalTasks + " tasks in the list.");
-        System.out.println(DIVIDER);
+        println(DIVIDER);
+        println("  Noted. I've removed this task:");
+        println("    " + task);
+        println("  Now you have " + totalTasks + " tasks in the list.");
+        println(DIVIDER);
     }
 
     public void showFoundTasks(ArrayList<Task> tasks) {
-        System.out.println(DIVIDER);
+        println(DIVIDER);
         if (tasks.isEmpty()) {
-            System.out.println("  No matching tasks found.");
+            println("  No matching tasks found.");
         } else {
-            System.out.println("  Here are the matching tasks in your list:");
+            println("  Here are the matching tasks in your list:");
             for (int i = 0; i < tasks.size(); i++) {
-                System.out.println("  " + (i + 1) + ". " + tasks.get(i));
+                appendNumbered(i + 1, tasks.get(i));
             }
         }
-        System.out.println(DIVIDER);
+        println(DIVIDER);
     }
 
     public void showTasksOnDate(ArrayList<Task> tasks, LocalDateTime date) {
-        System.out.println(DIVIDER);
-        System.out.println("  Tasks on " + date.format(DISPLAY_DATE_FORMATTER) + ":");
+        println(DIVIDER);
+        println("  Tasks on " + date.format(DISPLAY_DATE_FORMATTER) + ":");
         if (tasks.isEmpty()) {
-            System.out.println("  No tasks found on this date.");
+            println("  No tasks found on this date.");
         } else {
             for (int i = 0; i < tasks.size(); i++) {
-                System.out.println("  " + (i + 1) + ". " + tasks.get(i));
+                appendNumbered(i + 1, tasks.get(i));
             }
         }
-        System.out.println(DIVIDER);
+        println(DIVIDER);
+    }
+
+    /**
+     * Displays the deadlines and events within a range of dates, printing each task
+     * as it is produced so that the whole agenda is never held in memory.
+     *
+     * @param tasks The matching tasks, in chronological order.
+     * @param from The first date of the range.
+     * @param to The last date of the range.
+     */
+    public void showAgenda(Iterator<Task> tasks, LocalDateTime from, LocalDateTime to) {
+        println(DIVIDER);
+        println("  Agenda from " + from.format(DISPLAY_DATE_FORMATTER)
+                + " to " + to.format(DISPLAY_DATE_FORMATTER) + ":");
+        int count = 0;
+        while (tasks.hasNext()) {
+            count++;
+            appendNumbered(count, tasks.next());
+        }
+        if (count == 0) {
+            println("  No tasks found in this period.");
+        }
+        println(DIVIDER);
     }
 
     /**
@@ -154,16 +331,53 @@ public class Ui {
         final String ANSI_GREEN = "\u001B[32m";
         final String ANSI_RESET = "\u001B[0m";
 
-        System.out.println(DIVIDER);
-        System.out.println("  " + ANSI_GREEN + quote + ANSI_RESET);
-        System.out.println(DIVIDER);
+        println(DIVIDER);
+        println("  " + ANSI_GREEN + quote + ANSI_RESET);
+        println(DIVIDER);
+    }
+
+    /**
+     * Displays the statistics of the commands run so far, followed by how much the
+     * description pool has saved by sharing equal descriptions.
+     *
+     * @param reportLines The formatted statistics, one line per entry.
+     * @param sharedDescriptions The number of descriptions replaced by a pooled equal one.
+     * @param bytesSaved The estimated heap saved by sharing them.
+     */
+    public void showStats(List<String> reportLines, long sharedDescriptions, long bytesSaved) {
+        println(DIVIDER);
+        println("  Command statistics:");
+        for (String line : reportLines) {
+            println("  " + line);
+        }
+        println("  Description pool: " + sharedDescriptions + " duplicates shared, about "
+                + bytesSaved + " bytes saved");
+        println(DIVIDER);
     }
 
     public void showLine() {
-        System.out.println(DIVIDER);
+        println(DIVIDER);
     }
 
     public void closeScanner() {
-        scanner.close();
+        if (scanner != null) {
+            scanner.close();
+        }
+    }
+
+    private void println(String line) {
+        output.append(line).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Renders one line of a numbered task listing straight into the output buffer,
+     * writing the buffer out whenever a chunk has built up.
+     */
+    private void appendNumbered(int number, Task task) {
+        task.appendTo(output.append("  ").append(number).append(". ")).append(LINE_SEPARATOR);
+        if (output.length() >= OUTPUT_CHUNK_SIZE) {
+            out.append(output);
+            output.setLength(0);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,292 @@
+package buddy.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Records how long each type of command takes to parse, execute and save, how many bytes
+ * it writes and how many tasks it scans, in one {@link Histogram} per command type and metric.
+ * The command loop brackets each command with {@link #beginCommand()} and
+ * {@link #recordCommand(String, long, long)}; in between, storage and task lists add what
+ * they do to a sample kept for the current thread. Recording takes no locks, so the
+ * metrics stay on all the time, also when several sessions run commands at once.
+ */
+public class CommandMetrics implements CommandMetricsMBean {
+    /** The command type recorded for input that could not be parsed. */
+    public static final String INVALID_COMMAND = "invalid";
+
+    private static final String OBJECT_NAME = "buddy:type=CommandMetrics";
+    private static final CommandMetrics SHARED = new CommandMetrics();
+    private static final ThreadLocal<Sample> CURRENT_SAMPLE = ThreadLocal.withInitial(Sample::new);
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    /**
+     * The quantities recorded for each command.
+     */
+    public enum Metric {
+        PARSE_TIME("parse", true),
+        EXECUTE_TIME("execute", true),
+        SAVE_TIME("save", true),
+        BYTES_WRITTEN("bytes written", false),
+        TASKS_SCANNED("tasks scanned", false);
+
+        private final String label;
+        private final boolean isTime;
+
+        Metric(String label, boolean isTime) {
+            this.label = label;
+            this.isTime = isTime;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Histogram[]> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the metrics shared by every session.
+     *
+     * @return The shared metrics.
+     */
+    public static CommandMetrics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Adds time spent saving to the command running on this thread, if any.
+     *
+     * @param nanos The time spent, in nanoseconds.
+     */
+    public static void addSaveTime(long nanos) {
+        Sample sample = CURRENT_SAMPLE.get();
+        if (sample.isActive) {
+            sample.saveNanos += nanos;
+            sample.hasSaved = true;
+        }
+    }
+
+    /**
+     * Adds bytes written to the command running on this thread, if any.
+     *
+     * @param bytes The number of bytes written.
+     */
+    public static void addBytesWritten(long bytes) {
+        Sample sample = CURRENT_SAMPLE.get();
+        if (sample.isActive) {
+            sample.bytesWritten += bytes;
+        }
+    }
+
+    /**
+     * Adds tasks looked at to the command running on this thread, if any.
+     *
+     * @param count The number of tasks scanned.
+     */
+    public static void addTasksScanned(long count) {
+        Sample sample = CURRENT_SAMPLE.get();
+        if (sample.isActive) {
+            sample.tasksScanned += count;
+            sample.hasScanned = true;
+        }
+    }
+
+    /**
+     * Gets the number of tasks looked at so far by the command running on this thread,
+     * to roll back to with {@link #rollBackTasksScanned(long)} if a lookup is retried.
+     *
+     * @return The number of tasks scanned so far.
+     */
+    public static long getTasksScanned() {
+        return CURRENT_SAMPLE.get().tasksScanned;
+    }
+
+    /**
+     * Forgets the tasks looked at by the command running on this thread since
+     * {@link #getTasksScanned()} returned the given count, so a retried lookup is only counted once.
+     *
+     * @param tasksScanned The count to roll back to.
+     */
+    public static void rollBackTasksScanned(long tasksScanned) {
+        CURRENT_SAMPLE.get().tasksScanned = tasksScanned;
+    }
+
+    /**
+     * Starts collecting the save time, bytes written and tasks scanned of a command on this thread.
+     */
+    public void beginCommand() {
+        Sample sample = CURRENT_SAMPLE.get();
+        sample.saveNanos = 0;
+        sample.bytesWritten = 0;
+        sample.tasksScanned = 0;
+        sample.hasSaved = false;
+        sample.hasScanned = false;
+        sample.isActive = true;
+    }
+
+    /**
+     * Records a command run on this thread, together with what was collected since
+     * {@link #beginCommand()}. Saves and scans are only recorded for commands that did any.
+     *
+     * @param commandType The type of the command, such as {@code todo}.
+     * @param parseNanos The time taken to parse the command.
+     * @param executeNanos The time taken to execute the command, including saving.
+     */
+    public void recordCommand(String commandType, long parseNanos, long executeNanos) {
+        Sample sample = CURRENT_SAMPLE.get();
+        sample.isActive = false;
+        Histogram[] commandHistograms = histogramsOf(commandType);
+        commandHistograms[Metric.PARSE_TIME.ordinal()].record(parseNanos);
+        commandHistograms[Metric.EXECUTE_TIME.ordinal()].record(executeNanos);
+        if (sample.hasSaved) {
+            commandHistograms[Metric.SAVE_TIME.ordinal()].record(sample.saveNanos);
+            commandHistograms[Metric.BYTES_WRITTEN.ordinal()].record(sample.bytesWritten);
+        }
+        if (sample.hasScanned) {
+            commandHistograms[Metric.TASKS_SCANNED.ordinal()].record(sample.tasksScanned);
+        }
+    }
+
+    /**
+     * Records input that could not be parsed as a command.
+     *
+     * @param parseNanos The time taken until parsing failed.
+     */
+    public void recordInvalidCommand(long parseNanos) {
+        histogramsOf(INVALID_COMMAND)[Metric.PARSE_TIME.ordinal()].record(parseNanos);
+    }
+
+    /**
+     * Gets the histogram of one metric of a command type.
+     *
+     * @param commandType The command type, such as {@code todo}.
+     * @param metric The metric.
+     * @return The histogram, or null if no command of that type was recorded.
+     */
+    public Histogram getHistogram(String commandType, Metric metric) {
+        Histogram[] commandHistograms = histograms.get(commandType);
+        return commandHistograms == null ? null : commandHistograms[metric.ordinal()];
+    }
+
+    /**
+     * Formats the statistics of every command type: counts and the median, 99th percentile
+     * and maximum of each metric that was recorded.
+     *
+     * @return The report lines, or a single line saying that nothing was recorded.
+     */
+    public List<String> getReportLines() {
+        List<String> lines = new ArrayList<>();
+        for (String commandType : getCommandTypes()) {
+            Histogram[] commandHistograms = histograms.get(commandType);
+            long count = getCommandCount(commandType);
+            lines.add(commandType + ": " + count + (count == 1 ? " command" : " commands"));
+            for (Metric metric : Metric.values()) {
+                Histogram histogram = commandHistograms[metric.ordinal()];
+                if (histogram.getCount() > 0) {
+                    lines.add(String.format(Locale.ROOT, "  %-14s p50 %s  p99 %s  max %s", metric.label,
+                            format(metric, histogram.getValueAtPercentile(50)),
+                            format(metric, histogram.getValueAtPercentile(99)),
+                            format(metric, histogram.getMax())));
+                }
+            }
+        }
+        if (lines.isEmpty()) {
+            lines.add("No commands recorded yet.");
+        }
+        return lines;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, so JMX clients can read them.
+     *
+     * @throws BuddyException If the registration fails.
+     */
+    public void registerMBean() throws BuddyException {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            throw new BuddyException("Cannot register command metrics: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String[] getCommandTypes() {
+        List<String> commandTypes = new ArrayList<>(histograms.keySet());
+        Collections.sort(commandTypes);
+        return commandTypes.toArray(new String[0]);
+    }
+
+    @Override
+    public String getReport() {
+        return String.join(System.lineSeparator(), getReportLines());
+    }
+
+    @Override
+    public long getCommandCount(String commandType) {
+        Metric counted = commandType.equals(INVALID_COMMAND) ? Metric.PARSE_TIME : Metric.EXECUTE_TIME;
+        Histogram histogram = getHistogram(commandType, counted);
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    @Override
+    public long getPercentile(String commandType, String metric, double percentile) {
+        Histogram histogram = histogramNamed(commandType, metric);
+        return histogram == null ? 0 : histogram.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getMax(String commandType, String metric) {
+        Histogram histogram = histogramNamed(commandType, metric);
+        return histogram == null ? 0 : histogram.getMax();
+    }
+
+    /**
+     * Gets the histogram of a metric named by a management client, which may name any metric.
+     *
+     * @return The histogram, or null if the metric is unknown or nothing was recorded for it.
+     */
+    private Histogram histogramNamed(String commandType, String metricName) {
+        for (Metric metric : Metric.values()) {
+            if (metric.name().equals(metricName)) {
+                return getHistogram(commandType, metric);
+            }
+        }
+        return null;
+    }
+
+    private Histogram[] histogramsOf(String commandType) {
+        Histogram[] commandHistograms = histograms.get(commandType);
+        if (commandHistograms == null) {
+            commandHistograms = histograms.computeIfAbsent(commandType, type -> {
+                Histogram[] created = new Histogram[Metric.values().length];
+                for (int i = 0; i < created.length; i++) {
+                    created[i] = new Histogram();
+                }
+                return created;
+            });
+        }
+        return commandHistograms;
+    }
+
+    private static String format(Metric metric, long value) {
+        if (metric.isTime) {
+            return String.format(Locale.ROOT, "%.1f us", value / NANOS_PER_MICRO);
+        }
+        return Long.toString(value);
+    }
+
+    /**
+     * What the storage and task lists did for the command running on one thread.
+     */
+    private static class Sample {
+        private boolean isActive;
+        private boolean hasSaved;
+        private boolean hasScanned;
+        private long saveNanos;
+        private long bytesWritten;
+        private long tasksScanned;
+    }
+}
@@ -0,0 +1,49 @@
+package buddy.util;
+
+/**
+ * Management interface of {@link CommandMetrics}, registered as {@code buddy:type=CommandMetrics}.
+ * Times are in nanoseconds; metric names are those of {@link CommandMetrics.Metric}, such as
+ * {@code EXECUTE_TIME}.
+ */
+public interface CommandMetricsMBean {
+    /**
+     * Gets the types of the commands run so far, such as {@code todo} or {@code list}.
+     *
+     * @return The command types, sorted.
+     */
+    String[] getCommandTypes();
+
+    /**
+     * Gets the statistics of every command type as text, as shown by the {@code stats} command.
+     *
+     * @return The report, one line per entry.
+     */
+    String getReport();
+
+    /**
+     * Gets the number of commands of a type that were run.
+     *
+     * @param commandType The command type.
+     * @return The number of commands.
+     */
+    long getCommandCount(String commandType);
+
+    /**
+     * Gets a percentile of one metric of a command type.
+     *
+     * @param commandType The command type.
+     * @param metric The name of the metric.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The value at the percentile, or 0 if nothing was recorded or the metric is unknown.
+     */
+    long getPercentile(String commandType, String metric, double percentile);
+
+    /**
+     * Gets the largest value of one metric of a command type.
+     *
+     * @param commandType The command type.
+     * @param metric The name of the metric.
+     * @return The largest value, or 0 if nothing was recorded or the metric is unknown.
+     */
+    long getMax(String commandType, String metric);
+}
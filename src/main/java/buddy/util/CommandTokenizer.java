@@ -0,0 +1,168 @@
+package buddy.util;
+
+/**
+ * Single-pass reader over a command line that picks out the command word, the
+ * {@code /by}, {@code /from} and {@code /to} flags and the text between them.
+ * It works on the input in place with a cursor, without regular expressions or
+ * intermediate arrays, and only creates strings for the pieces a command keeps.
+ *
+ * <p>The command word runs up to the first space. Everything after that space is the
+ * argument text, which the cursor starts at. Flags are only recognized with a space on
+ * both sides, such as {@code " /by "}.
+ */
+public class CommandTokenizer {
+    private final CharSequence input;
+    private final int keywordEnd;
+    private int cursor;
+
+    /**
+     * Creates a tokenizer for a command line.
+     *
+     * @param input The command line as entered by the user.
+     */
+    public CommandTokenizer(CharSequence input) {
+        this.input = input;
+        int end = 0;
+        while (end < input.length() && input.charAt(end) != ' ') {
+            end++;
+        }
+        this.keywordEnd = end;
+        this.cursor = Math.min(end + 1, input.length());
+    }
+
+    /**
+     * Reads the command word, ignoring case.
+     * If it is one of the known words, that constant is returned without allocating;
+     * otherwise the command word is returned in lower case.
+     *
+     * @param knownWords Lower-case command words to match against.
+     * @return The command word in lower case.
+     */
+    public String readKeyword(String[] knownWords) {
+        for (String word : knownWords) {
+            if (word.length() == keywordEnd && regionEqualsIgnoreCase(0, word)) {
+                return word;
+            }
+        }
+        return input.subSequence(0, keywordEnd).toString().toLowerCase();
+    }
+
+    /**
+     * Checks whether nothing but whitespace is left after the cursor.
+     *
+     * @return true if the rest of the line is blank.
+     */
+    public boolean isRestBlank() {
+        return skipWhitespace(cursor, input.length()) == input.length();
+    }
+
+    /**
+     * Reads the rest of the line as it is and moves the cursor to the end.
+     *
+     * @return The rest of the line, untrimmed.
+     */
+    public String readRest() {
+        String rest = input.subSequence(cursor, input.length()).toString();
+        cursor = input.length();
+        return rest;
+    }
+
+    /**
+     * Reads the rest of the line without surrounding whitespace and moves the cursor to the end.
+     *
+     * @return The trimmed rest of the line.
+     */
+    public String readRestTrimmed() {
+        String rest = trimmed(cursor, input.length());
+        cursor = input.length();
+        return rest;
+    }
+
+    /**
+     * Reads the text up to the next occurrence of a flag and moves the cursor past the flag.
+     *
+     * @param flag The flag with its surrounding spaces, such as {@code " /by "}.
+     * @return The trimmed text before the flag, or null if the flag does not occur,
+     *     in which case the cursor does not move.
+     */
+    public String readUntil(String flag) {
+        int flagStart = indexOf(flag, cursor);
+        if (flagStart < 0) {
+            return null;
+        }
+        String text = trimmed(cursor, flagStart);
+        cursor = flagStart + flag.length();
+        return text;
+    }
+
+    /**
+     * Checks whether a flag occurs anywhere after the cursor.
+     *
+     * @param flag The flag with its surrounding spaces.
+     * @return true if the flag occurs.
+     */
+    public boolean hasFlagAhead(String flag) {
+        return indexOf(flag, cursor) >= 0;
+    }
+
+    /**
+     * Reads the next run of non-whitespace characters and moves the cursor past it.
+     *
+     * @return The word, or null if only whitespace is left.
+     */
+    public String readWord() {
+        int start = skipWhitespace(cursor, input.length());
+        int end = start;
+        while (end < input.length() && input.charAt(end) > ' ') {
+            end++;
+        }
+        cursor = end;
+        return start == end ? null : input.subSequence(start, end).toString();
+    }
+
+    private String trimmed(int start, int end) {
+        start = skipWhitespace(start, end);
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return input.subSequence(start, end).toString();
+    }
+
+    /**
+     * Skips whitespace the way {@link String#trim()} defines it.
+     */
+    private int skipWhitespace(int position, int end) {
+        while (position < end && input.charAt(position) <= ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private int indexOf(String flag, int from) {
+        int last = input.length() - flag.length();
+        for (int start = from; start <= last; start++) {
+            if (regionEquals(start, flag)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionEquals(int start, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (input.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionEqualsIgnoreCase(int start, String lowerText) {
+        for (int i = 0; i < lowerText.length(); i++) {
+            if (Character.toLowerCase(input.charAt(start + i)) != lowerText.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,196 @@
+package buddy.util;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Hand-written parser for the two date shapes Buddy reads: {@code d/M/yyyy HHmm} as
+ * typed by the user and {@code yyyy-MM-dd'T'HH:mm} as written to the data file.
+ * The shape is checked character by character up front, so unlike a
+ * {@link java.time.format.DateTimeFormatter} that is tried and caught in turn,
+ * a mismatch costs no exception; every method returns null instead.
+ * Dates resolve like the formatters' default smart resolver: a day past the end of
+ * its month, such as 31/4, is moved back to the last day of that month, and a time
+ * of 24:00 means midnight at the end of the day.
+ * Years follow the formatters' {@code yyyy} too: exactly four digits, or a plus sign and
+ * more than four digits, and never below year 1.
+ */
+public class FastDateParser {
+    private static final int YEAR_DIGITS = 4;
+    private static final int STORAGE_LENGTH_AFTER_YEAR = 12;
+    private static final int MAX_FIELD_DIGITS = 9;
+    private static final int TIME_FORBIDDEN = 0;
+    private static final int TIME_OPTIONAL = 1;
+    private static final int TIME_REQUIRED = 2;
+
+    /**
+     * Parses a date and time in either the input or the storage shape.
+     *
+     * @param text The text to parse.
+     * @return The date and time, or null if the text has neither shape.
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        // Only the storage shape has a dash after its leading number
+        int yearEnd = yearEnd(text, 0);
+        if (yearEnd > 0 && yearEnd < text.length() && text.charAt(yearEnd) == '-') {
+            return parseStorage(text);
+        }
+        return parseDayMonthYear(text, TIME_REQUIRED);
+    }
+
+    /**
+     * Parses a date and time in the input shape {@code d/M/yyyy HHmm}.
+     *
+     * @param text The text to parse.
+     * @return The date and time, or null if the text has a different shape.
+     */
+    public static LocalDateTime parseDateTime(CharSequence text) {
+        return parseDayMonthYear(text, TIME_REQUIRED);
+    }
+
+    /**
+     * Parses a date in the input shape {@code d/M/yyyy}, with an optional {@code HHmm} time.
+     *
+     * @param text The text to parse.
+     * @return The date and time, at midnight if no time is given, or null if the text has a different shape.
+     */
+    public static LocalDateTime parseDateWithOptionalTime(CharSequence text) {
+        return parseDayMonthYear(text, TIME_OPTIONAL);
+    }
+
+    /**
+     * Parses a date in the input shape {@code d/M/yyyy}, without a time.
+     *
+     * @param text The text to parse.
+     * @return Midnight of the date, or null if the text has a different shape.
+     */
+    public static LocalDateTime parseDate(CharSequence text) {
+        return parseDayMonthYear(text, TIME_FORBIDDEN);
+    }
+
+    /**
+     * Parses a date and time in the storage shape {@code yyyy-MM-dd'T'HH:mm}.
+     *
+     * @param text The text to parse.
+     * @return The date and time, or null if the text has a different shape.
+     */
+    public static LocalDateTime parseStorage(CharSequence text) {
+        int yearEnd = yearEnd(text, 0);
+        if (yearEnd < 0 || text.length() != yearEnd + STORAGE_LENGTH_AFTER_YEAR || text.charAt(yearEnd) != '-'
+                || text.charAt(yearEnd + 3) != '-' || text.charAt(yearEnd + 6) != 'T'
+                || text.charAt(yearEnd + 9) != ':') {
+            return null;
+        }
+        return toDateTime(year(text, 0, yearEnd), digits(text, yearEnd + 1, 2), digits(text, yearEnd + 4, 2),
+                digits(text, yearEnd + 7, 2), digits(text, yearEnd + 10, 2));
+    }
+
+    /**
+     * Builds a date and time from its fields, checking their ranges without throwing.
+     * A day past the end of its month is moved back to the last day of the month,
+     * and 24:00 is taken as midnight of the next day.
+     *
+     * @return The date and time, or null if a field is out of range or the year is before year 1.
+     */
+    public static LocalDateTime toDateTime(int year, int month, int day, int hour, int minute) {
+        boolean isEndOfDay = hour == 24 && minute == 0;
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || (hour > 23 && !isEndOfDay)
+                || minute < 0 || minute > 59) {
+            return null;
+        }
+        int monthLength = Month.of(month).length(Year.isLeap(year));
+        LocalDateTime dateTime = LocalDateTime.of(year, month, Math.min(day, monthLength), isEndOfDay ? 0 : hour, minute);
+        return isEndOfDay ? dateTime.plusDays(1) : dateTime;
+    }
+
+    private static LocalDateTime parseDayMonthYear(CharSequence text, int timeMode) {
+        int length = text.length();
+        int dayEnd = numberEnd(text, 0);
+        if (dayEnd < 0 || dayEnd >= length || text.charAt(dayEnd) != '/') {
+            return null;
+        }
+        int monthStart = dayEnd + 1;
+        int monthEnd = numberEnd(text, monthStart);
+        if (monthEnd < 0 || monthEnd >= length || text.charAt(monthEnd) != '/') {
+            return null;
+        }
+        int yearStart = monthEnd + 1;
+        int yearEnd = yearEnd(text, yearStart);
+        if (yearEnd < 0) {
+            return null;
+        }
+        int hour = 0;
+        int minute = 0;
+        if (yearEnd == length) {
+            if (timeMode == TIME_REQUIRED) {
+                return null;
+            }
+        } else {
+            if (timeMode == TIME_FORBIDDEN || length != yearEnd + 5 || text.charAt(yearEnd) != ' ') {
+                return null;
+            }
+            hour = digits(text, yearEnd + 1, 2);
+            minute = digits(text, yearEnd + 3, 2);
+        }
+        return toDateTime(year(text, yearStart, yearEnd), digits(text, monthStart, monthEnd - monthStart),
+                digits(text, 0, dayEnd), hour, minute);
+    }
+
+    /**
+     * Finds the end of a number of at most {@value #MAX_FIELD_DIGITS} digits, which keeps its value in an int.
+     *
+     * @return The index after the last digit, or -1 if there is no digit at the start.
+     */
+    private static int numberEnd(CharSequence text, int start) {
+        int end = start;
+        while (end < text.length() && end - start < MAX_FIELD_DIGITS && isDigit(text.charAt(end))) {
+            end++;
+        }
+        return end == start ? -1 : end;
+    }
+
+    /**
+     * Finds the end of a year written like {@code yyyy} writes it: exactly four digits, or
+     * a plus sign and more than four digits.
+     *
+     * @return The index after the last digit, or -1 if there is no such year at the start.
+     */
+    private static int yearEnd(CharSequence text, int start) {
+        boolean isSigned = start < text.length() && text.charAt(start) == '+';
+        int digitsStart = isSigned ? start + 1 : start;
+        int end = numberEnd(text, digitsStart);
+        if (end < 0) {
+            return -1;
+        }
+        int digitCount = end - digitsStart;
+        boolean isValidWidth = isSigned ? digitCount > YEAR_DIGITS : digitCount == YEAR_DIGITS;
+        return isValidWidth ? end : -1;
+    }
+
+    private static int year(CharSequence text, int start, int end) {
+        int digitsStart = text.charAt(start) == '+' ? start + 1 : start;
+        return digits(text, digitsStart, end - digitsStart);
+    }
+
+    /**
+     * Reads a fixed number of decimal digits.
+     *
+     * @return The value, or -1 if any of the characters is not a digit.
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -1,18 +1,24 @@
 package buddy.util;
 
 import buddy.commands.*;
+import buddy.data.TaskFilter;
 import buddy.data.TaskList;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 
 /**
  * Responsible for parsing user input into commands.
  * Handles the different command formats and their arguments.
  */
 public class Parser {
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d/M/yyyy[ HHmm]");
+    // Command words matched without allocating; any others still work, just less cheaply
+    private static final String[] COMMAND_WORDS = {
+        "bye", "list", "mark", "unmark", "todo", "deadline", "event", "delete", "find", "date", "agenda", "cheer",
+        "stats"
+    };
+    private static final String BY_FLAG = " /by ";
+    private static final String FROM_FLAG = " /from ";
+    private static final String TO_FLAG = " /to ";
 
     /**
      * Parses a user input string into the corresponding command.
@@ -22,133 +28,206 @@ public class Parser {
      * @throws BuddyException If the input format is invalid or the command is unknown.
      */
     public static Command parse(String userInput) throws BuddyException {
-        String[] parts = userInput.split(" ", 2);
-        String commandType = parts[0].toLowerCase();
-        String arguments = parts.length > 1 ? parts[1] : "";
+        CommandTokenizer tokenizer = new CommandTokenizer(userInput);
+        String commandType = tokenizer.readKeyword(COMMAND_WORDS);
 
         switch (commandType) {
             case "bye":
                 return new ExitCommand();
             case "list":
-                return new ListCommand();
+                return parseListCommand(tokenizer);
             case "mark":
-                if (arguments.trim().isEmpty()) {
-                    throw new BuddyException("Please provide a task number to mark.");
-                }
-                try {
-                    int taskIndex = Integer.parseInt(arguments.trim()) - 1;
-                    return new MarkCommand(taskIndex);
-                } catch (NumberFormatException e) {
-                    throw new BuddyException("Invalid task number format.");
-                }
+                return new MarkCommand(parseTaskTarget(tokenizer, "mark"));
             case "unmark":
-                if (arguments.trim().isEmpty()) {
-                    throw new BuddyException("Please provide a task number to unmark.");
-                }
-                try {
-                    int taskIndex = Integer.parseInt(arguments.trim()) - 1;
-                    return new UnmarkCommand(taskIndex);
-                } catch (NumberFormatException e) {
-                    throw new BuddyException("Invalid task number format.");
-                }
+                return new UnmarkCommand(parseTaskTarget(tokenizer, "unmark"));
             case "todo":
-                if (arguments.trim().isEmpty()) {
+                if (tokenizer.isRestBlank()) {
                     throw new BuddyException("The description of a todo cannot be empty.");
                 }
-                return new TodoCommand(arguments);
+                return new TodoCommand(tokenizer.readRest());
             case "deadline":
-                return parseDeadlineCommand(arguments);
+                return parseDeadlineCommand(tokenizer);
             case "event":
-                return parseEventCommand(arguments);
+                return parseEventCommand(tokenizer);
             case "delete":
-                if (arguments.trim().isEmpty()) {
-                    throw new BuddyException("Please provide a task number to delete.");
-                }
-                try {
-                    int taskIndex = Integer.parseInt(arguments.trim()) - 1;
-                    return new DeleteCommand(taskIndex);
-                } catch (NumberFormatException e) {
-                    throw new BuddyException("Invalid task number format.");
-                }
+                return new DeleteCommand(parseTaskTarget(tokenizer, "delete"));
             case "find":
-                if (arguments.trim().isEmpty()) {
+                if (tokenizer.isRestBlank()) {
                     throw new BuddyException("Please provide a keyword to search for.");
                 }
-                return new FindCommand(arguments);
+                return new FindCommand(tokenizer.readRest());
             case "date":
-                if (arguments.trim().isEmpty()) {
+                if (tokenizer.isRestBlank()) {
                     throw new BuddyException("Please provide a date in d/M/yyyy format.");
                 }
-                try {
-                    LocalDateTime searchDate = LocalDateTime.parse(arguments + " 0000", DATE_FORMATTER);
-                    return new DateCommand(searchDate);
-                } catch (DateTimeParseException e) {
+                LocalDateTime searchDate = FastDateParser.parseDate(tokenizer.readRest());
+                if (searchDate == null) {
                     throw new BuddyException("Invalid date format. Please use d/M/yyyy format (e.g., 2/12/2023)");
                 }
+                return new DateCommand(searchDate);
+            case "agenda":
+                return parseAgendaCommand(tokenizer);
             case "cheer":
                 return new CheerCommand();
+            case "stats":
+                return new StatsCommand();
             default:
                 throw new BuddyException("Unknown command: " + commandType);
         }
     }
 
-    private static Command parseDeadlineCommand(String arguments) throws BuddyException {
-        if (arguments.trim().isEmpty()) {
+    /**
+     * Parses the task a command refers to, given either as a list number or as {@code #id}.
+     */
+    private static TaskTarget parseTaskTarget(CommandTokenizer tokenizer, String action) throws BuddyException {
+        String target = tokenizer.readRestTrimmed();
+        if (target.isEmpty() || target.equals("#")) {
+            throw new BuddyException("Please provide a task number to " + action + ".");
+        }
+        try {
+            if (target.startsWith("#")) {
+                long taskId = Long.parseLong(target, 1, target.length(), 10);
+                if (taskId <= 0) {
+                    throw new BuddyException("Invalid task ID format.");
+                }
+                return TaskTarget.withId(taskId);
+            }
+            return TaskTarget.atIndex(Integer.parseInt(target) - 1);
+        } catch (NumberFormatException e) {
+            throw new BuddyException(target.startsWith("#") ? "Invalid task ID format." : "Invalid task number format.");
+        }
+    }
+
+    private static Command parseListCommand(CommandTokenizer tokenizer) throws BuddyException {
+        int page = 0;
+        int pageSize = 0;
+        TaskFilter.Status status = TaskFilter.Status.ANY;
+        char type = TaskFilter.ANY_TYPE;
+        for (String word = tokenizer.readWord(); word != null; word = tokenizer.readWord()) {
+            switch (word) {
+                case "--done":
+                    status = TaskFilter.Status.DONE;
+                    break;
+                case "--pending":
+                    status = TaskFilter.Status.PENDING;
+                    break;
+                case "--type":
+                    String typeWord = tokenizer.readWord();
+                    if (typeWord == null || typeWord.length() != 1 || "TDE".indexOf(typeWord.toUpperCase()) < 0) {
+                        throw new BuddyException("Please provide a task type to list: T, D or E.");
+                    }
+                    type = typeWord.toUpperCase().charAt(0);
+                    break;
+                default:
+                    int number = parsePositiveNumber(word);
+                    if (number <= 0 || pageSize > 0) {
+                        throw new BuddyException("Invalid list format. Please use: "
+                                + "list [page] [size] [--done|--pending] [--type T|D|E]\n"
+                                + "Example: list 2 50 --pending --type D");
+                    }
+                    if (page == 0) {
+                        page = number;
+                    } else {
+                        pageSize = number;
+                    }
+            }
+        }
+        if (page == 0 && status == TaskFilter.Status.ANY && type == TaskFilter.ANY_TYPE) {
+            return new ListCommand();
+        }
+        TaskFilter filter = new TaskFilter(status, type);
+        return new ListCommand(filter, page, pageSize > 0 ? pageSize : ListCommand.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Parses a positive whole number without throwing.
+     *
+     * @return The number, or -1 if the word is not a positive number that fits in an int.
+     */
+    private static int parsePositiveNumber(String word) {
+        if (word.length() > 9) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private static Command parseDeadlineCommand(CommandTokenizer tokenizer) throws BuddyException {
+        if (tokenizer.isRestBlank()) {
             throw new BuddyException("The description of a deadline cannot be empty.");
         }
 
-        String[] parts = arguments.split(" /by ");
-        if (parts.length != 2) {
+        String description = tokenizer.readUntil(BY_FLAG);
+        if (description == null || tokenizer.hasFlagAhead(BY_FLAG) || tokenizer.isRestBlank()) {
             throw new BuddyException("Invalid deadline format. Please use: deadline <description> /by <date>\n" +
                     "Example: deadline return book /by 2/12/2023 1800");
         }
 
-        String description = parts[0].trim();
-        String byDateString = parts[1].trim();
+        String byDateString = tokenizer.readRestTrimmed();
 
-        try {
-            LocalDateTime byDate = LocalDateTime.parse(byDateString, DATE_FORMATTER);
-            return new DeadlineCommand(description, byDate);
-        } catch (DateTimeParseException e) {
+        LocalDateTime byDate = FastDateParser.parseDateTime(byDateString);
+        if (byDate == null) {
             throw new BuddyException("Invalid date format. Please use: d/M/yyyy HHmm format (e.g., 2/12/2023 1800)");
         }
+        return new DeadlineCommand(description, byDate);
     }
 
-    private static Command parseEventCommand(String arguments) throws BuddyException {
-        if (arguments.trim().isEmpty()) {
+    private static Command parseEventCommand(CommandTokenizer tokenizer) throws BuddyException {
+        if (tokenizer.isRestBlank()) {
             throw new BuddyException("The description of an event cannot be empty.");
         }
 
-        // Split by /from and /to
-        String[] parts = arguments.split(" /from | /to ");
-        if (parts.length != 3) {
+        // The flags must come in order: /from, then /to
+        String description = tokenizer.readUntil(FROM_FLAG);
+        String fromDateString = description == null ? null : tokenizer.readUntil(TO_FLAG);
+        if (fromDateString == null || tokenizer.hasFlagAhead(FROM_FLAG) || tokenizer.hasFlagAhead(TO_FLAG)
+                || tokenizer.isRestBlank()) {
             throw new BuddyException("Invalid event format. Please use: event <description> /from <start> /to <end>\n" +
                     "Example: event project meeting /from 6/8/2023 1400 /to 6/8/2023 1600");
         }
 
-        String description = parts[0].trim();
-        String fromDateString = parts[1].trim();
-        String toDateString = parts[2].trim();
+        String toDateString = tokenizer.readRestTrimmed();
 
-        try {
-            LocalDateTime fromDate = LocalDateTime.parse(fromDateString, DATE_FORMATTER);
-            LocalDateTime toDate = LocalDateTime.parse(toDateString, DATE_FORMATTER);
-            return new EventCommand(description, fromDate, toDate);
-        } catch (DateTimeParseException e) {
+        LocalDateTime fromDate = FastDateParser.parseDateTime(fromDateString);
+        LocalDateTime toDate = FastDateParser.parseDateTime(toDateString);
+        if (fromDate == null || toDate == null) {
             throw new BuddyException("Invalid date format. Please use: d/M/yyyy HHmm format (e.g., 6/8/2023 1400)");
         }
+        return new EventCommand(description, fromDate, toDate);
+    }
+
+    private static Command parseAgendaCommand(CommandTokenizer tokenizer) throws BuddyException {
+        String fromDateString = tokenizer.readWord();
+        String toDateString = tokenizer.readWord();
+        if (toDateString == null || !tokenizer.isRestBlank()) {
+            throw new BuddyException("Invalid agenda format. Please use: agenda <from> <to>\n" +
+                    "Example: agenda 1/12/2023 7/12/2023");
+        }
+
+        LocalDateTime fromDate = FastDateParser.parseDate(fromDateString);
+        LocalDateTime toDate = FastDateParser.parseDate(toDateString);
+        if (fromDate == null || toDate == null) {
+            throw new BuddyException("Invalid date format. Please use d/M/yyyy format (e.g., 2/12/2023)");
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new BuddyException("The end date of an agenda cannot be before its start date.");
+        }
+        return new AgendaCommand(fromDate, toDate);
     }
 
     public static LocalDateTime parseDateTime(String dateTimeString) throws BuddyException {
-        try {
-            return LocalDateTime.parse(dateTimeString, DATE_FORMATTER);
-        } catch (DateTimeParseException e) {
-            try {
-                // Try as date-only format and set time to midnight
-                return LocalDateTime.parse(dateTimeString + " 0000", DATE_FORMATTER);
-            } catch (DateTimeParseException e2) {
-                throw new BuddyException("Invalid date format: " + dateTimeString);
-            }
+        // A date without a time means midnight
+        LocalDateTime dateTime = FastDateParser.parseDateWithOptionalTime(dateTimeString);
+        if (dateTime == null) {
+            throw new BuddyException("Invalid date format: " + dateTimeString);
         }
+        return dateTime;
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package buddy;
+
+import buddy.data.IndexedTaskList;
+import buddy.storage.Storage;
+import buddy.ui.Ui;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BuddyTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSessionOverReaderAndPrintStream() throws Exception {
+        String dataFile = tempDir.resolve("buddy.txt").toString().replace(File.separatorChar, '/');
+        String commands = "todo Read book\nfly away\nmark 1\nlist\nbye\ntodo Never read\n";
+        ByteArrayOutputStream replies = new ByteArrayOutputStream();
+        Ui ui = new Ui(new StringReader(commands), new PrintStream(replies, false, StandardCharsets.UTF_8));
+
+        new Buddy(new Storage(dataFile), IndexedTaskList::new, ui).run();
+
+        String output = replies.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("I've added this task as #1:"));
+        assertTrue(output.contains("1. [T][X] Read book"));
+        assertTrue(output.contains("Bye. Hope to see you again soon!"));
+        assertFalse(output.contains("Never read"));
+        assertTrue(Files.readString(tempDir.resolve("buddy.txt")).contains("Read book"));
+    }
+
+    @Test
+    public void testServerSessionsShareTaskList() throws Exception {
+        String dataFile = tempDir.resolve("buddy.txt").toString().replace(File.separatorChar, '/');
+        ByteArrayOutputStream serverLog = new ByteArrayOutputStream();
+        Ui ui = new Ui(new StringReader(""), new PrintStream(serverLog, false, StandardCharsets.UTF_8));
+        Buddy buddy = new Buddy(new Storage(dataFile), IndexedTaskList::new, ui);
+        ServerSocket serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        Thread server = new Thread(() -> {
+            try {
+                buddy.serve(serverSocket);
+            } catch (IOException e) {
+                // The test closed the socket
+            }
+        });
+        server.start();
+
+        try (Socket first = connect(serverSocket.getLocalPort());
+                Socket second = connect(serverSocket.getLocalPort())) {
+            BufferedReader firstReplies = replies(first);
+            send(first, "todo Alpha\n");
+            String firstTranscript = readUntil(firstReplies, "#1:");
+
+            send(second, "todo Beta\nlist\nbye\n");
+            String secondTranscript = readUntil(replies(second), null);
+
+            // The second session's bye leaves the first one open
+            send(first, "list\nbye\n");
+            firstTranscript += readUntil(firstReplies, null);
+
+            assertTrue(secondTranscript.contains("I've added this task as #2:"));
+            assertTrue(secondTranscript.contains("1. [T][ ] Alpha"));
+            assertTrue(secondTranscript.contains("2. [T][ ] Beta"));
+            assertTrue(secondTranscript.contains("Bye. Hope to see you again soon!"));
+            assertTrue(firstTranscript.contains("1. [T][ ] Alpha"));
+            assertTrue(firstTranscript.contains("2. [T][ ] Beta"));
+            assertTrue(firstTranscript.contains("Bye. Hope to see you again soon!"));
+        } finally {
+            serverSocket.close();
+            server.join(5000);
+        }
+        assertFalse(server.isAlive());
+        String saved = Files.readString(tempDir.resolve("buddy.txt"));
+        assertTrue(saved.contains("Alpha") && saved.contains("Beta"));
+    }
+
+    private static Socket connect(int port) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static BufferedReader replies(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static void send(Socket socket, String commands) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(commands.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Reads replies up to and including the first line containing the marker,
+     * or until the server closes the session if the marker is null.
+     */
+    private static String readUntil(BufferedReader replies, String marker) throws IOException {
+        StringBuilder transcript = new StringBuilder();
+        String line;
+        while ((line = replies.readLine()) != null) {
+            transcript.append(line).append('\n');
+            if (marker != null && line.contains(marker)) {
+                break;
+            }
+        }
+        return transcript.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package buddy.commands;
+
+import buddy.data.IndexedTaskList;
+import buddy.storage.Storage;
+import buddy.ui.Ui;
+import buddy.util.BuddyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheerCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRereadsQuotesAfterFileChanges() throws Exception {
+        Path quotesFile = tempDir.resolve("cheer.txt");
+        Files.writeString(quotesFile, "Ship it\n");
+        assertEquals("Ship it", cheer(quotesFile.toFile()));
+
+        Files.writeString(quotesFile, "Tests are green\n");
+        // Past the recheck interval, so the command looks at the file again
+        Thread.sleep(1100);
+        assertEquals("Tests are green", cheer(quotesFile.toFile()));
+    }
+
+    @Test
+    public void testMissingFileHasNoQuotes() {
+        File quotesFile = tempDir.resolve("missing").resolve("cheer.txt").toFile();
+
+        BuddyException e = assertThrows(BuddyException.class, () -> cheer(quotesFile));
+        assertTrue(e.getMessage().contains(quotesFile.getPath()));
+        assertTrue(quotesFile.getParentFile().isDirectory());
+    }
+
+    private String cheer(File quotesFile) throws BuddyException {
+        ByteArrayOutputStream replies = new ByteArrayOutputStream();
+        Ui ui = new Ui(new StringReader(""), new PrintStream(replies, false, StandardCharsets.UTF_8));
+        Storage storage = new Storage(tempDir.resolve("buddy.txt").toString());
+        new CheerCommand(quotesFile).execute(new IndexedTaskList(), ui, storage);
+        ui.flush();
+        String output = replies.toString(StandardCharsets.UTF_8);
+        // The quote is the only line between the dividers, wrapped in color codes
+        return output.split("\u001B\\[32m")[1].split("\u001B\\[0m")[0];
+    }
+}
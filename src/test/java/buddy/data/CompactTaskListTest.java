@@ -0,0 +1,140 @@
+package buddy.data;
+
+import buddy.util.BuddyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactTaskListTest {
+    private CompactTaskList taskList;
+
+    @BeforeEach
+    public void setUp() {
+        taskList = new CompactTaskList();
+    }
+
+    @Test
+    public void testAddAndGetTasks() throws BuddyException {
+        LocalDateTime by = LocalDateTime.of(2025, 4, 15, 14, 0);
+        taskList.addTodo("Read book");
+        taskList.addDeadline("Submit report", by);
+        taskList.addEvent("Team meeting", by, by.plusHours(2));
+
+        assertEquals(3, taskList.size());
+        Task deadline = taskList.getTask(1);
+        assertTrue(deadline instanceof Deadline);
+        assertEquals(by, ((Deadline) deadline).getBy());
+        assertEquals(2, deadline.getId());
+        assertEquals("[E][ ] Team meeting (from: Apr 15 2025, 2:00 PM to: Apr 15 2025, 4:00 PM)",
+                taskList.getTask(2).toString());
+    }
+
+    @Test
+    public void testMarkAndDeleteUpdateColumns() throws BuddyException {
+        for (int i = 1; i <= 200; i++) {
+            taskList.addTodo("Task " + i);
+        }
+        taskList.markTaskAsDone(4);
+        assertTrue(taskList.getTask(4).isDone());
+        assertFalse(taskList.markTaskAsUndoneById(5).isDone());
+
+        // Enough deletes to squeeze out the tombstones
+        for (int i = 0; i < 150; i++) {
+            taskList.deleteTask(0);
+        }
+        taskList.markTaskAsDoneById(180);
+        assertEquals(50, taskList.size());
+        assertEquals("Task 151", taskList.getTask(0).getDescription());
+        assertEquals(29, taskList.getIndexById(180));
+        assertTrue(taskList.getTaskById(180).isDone());
+        assertThrows(BuddyException.class, () -> taskList.getTaskById(5));
+        assertEquals(201, taskList.addTodo("Task 201").getId());
+    }
+
+    @Test
+    public void testSnapshotStaysSameWhileListChanges() throws BuddyException {
+        LocalDateTime by = LocalDateTime.of(2025, 3, 26, 14, 0);
+        taskList.addDeadline("Submit report", by);
+        taskList.addEvent("Conference \u00e9t\u00e9", by, by.plusDays(2));
+        for (int i = 1; i <= 100; i++) {
+            taskList.addTodo("Task " + (1000 + i));
+        }
+        taskList.markTaskAsDone(0);
+        taskList.deleteTask(5);
+        taskList.deleteTaskById(70);
+        List<String> expected = new ArrayList<>();
+        for (Task task : taskList.getTasks()) {
+            expected.add(task.getId() + " " + task);
+        }
+        List<Task> snapshot = taskList.snapshot();
+
+        taskList.markTaskAsUndone(0);
+        taskList.markTaskAsDone(1);
+        // Enough deletes to squeeze out the tombstones, then adds that could reuse the freed descriptions
+        for (int i = 0; i < 80; i++) {
+            taskList.deleteTask(2);
+        }
+        for (int i = 1; i <= 100; i++) {
+            taskList.addTodo("Task " + (2000 + i));
+        }
+
+        List<String> actual = new ArrayList<>();
+        for (Task task : snapshot) {
+            actual.add(task.getId() + " " + task);
+        }
+        assertEquals(expected, actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), snapshot.get(i).getId() + " " + snapshot.get(i));
+        }
+        assertEquals(120, taskList.size());
+        assertTrue(taskList.getTask(1).isDone());
+        assertEquals("Task 1083", taskList.getTask(2).getDescription());
+    }
+
+    @Test
+    public void testSearchesMatchTaskList() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 24, 9, 0);
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("Submit slides", start.plusDays(2)));
+        tasks.add(new Event("Conference", start.minusDays(1), start.plusDays(1)));
+        tasks.add(new Todo("Read Straße book"));
+        tasks.add(new Deadline("Call mom", start.plusDays(2).minusHours(1)));
+        TaskList objects = new IndexedTaskList(tasks);
+        CompactTaskList compact = new CompactTaskList(objects.getTasks());
+
+        assertEquals(objects.findTasks("STRASSE").size(), compact.findTasks("STRASSE").size());
+        assertEquals(objects.findTasks("con").toString(), compact.findTasks("con").toString());
+        assertEquals(objects.getTasksOnDate(start).toString(), compact.getTasksOnDate(start).toString());
+
+        Iterator<Task> expected = objects.getAgenda(start, start.plusDays(6));
+        Iterator<Task> actual = compact.getAgenda(start, start.plusDays(6));
+        while (expected.hasNext()) {
+            assertEquals(expected.next().toString(), actual.next().toString());
+        }
+        assertFalse(actual.hasNext());
+    }
+
+    @Test
+    public void testAgendaOrdersTimesSpanningMillennia() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 24, 9, 0);
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("Same time, first", start));
+        tasks.add(new Event("Long ago until far ahead", start.withYear(-5000), start.withYear(9000)));
+        tasks.add(new Deadline("Same time, second", start));
+        tasks.add(new Event("Started yesterday", start.minusDays(1), start.plusDays(1)));
+        TaskList objects = new IndexedTaskList(tasks);
+        CompactTaskList compact = new CompactTaskList(objects.getTasks());
+
+        Iterator<Task> expected = objects.getAgenda(start, start.plusDays(1));
+        Iterator<Task> actual = compact.getAgenda(start, start.plusDays(1));
+        while (expected.hasNext()) {
+            assertEquals(expected.next().toString(), actual.next().toString());
+        }
+        assertFalse(actual.hasNext());
+    }
+}
@@ -0,0 +1,153 @@
+package buddy.data;
+
+import buddy.util.BuddyException;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskListTest {
+    @Test
+    public void testOperationsReachWrappedList() throws BuddyException {
+        ConcurrentTaskList taskList = new ConcurrentTaskList(new IndexedTaskList());
+        LocalDateTime by = LocalDateTime.of(2025, 4, 15, 14, 0);
+        taskList.addTodo("Read book");
+        taskList.addDeadline("Return book", by);
+        taskList.addEvent("Book fair", by, by.plusDays(1));
+        taskList.markTaskAsDoneById(2);
+
+        assertEquals(3, taskList.size());
+        assertTrue(taskList.getTask(1).isDone());
+        assertEquals(3, taskList.findTasks("book").size());
+        assertEquals(2, taskList.getTasksOnDate(by).size());
+        assertEquals("Book fair", taskList.deleteTaskById(3).getDescription());
+        assertEquals(2, taskList.getAgenda(by, by.plusDays(1)).next().getId());
+        assertThrows(BuddyException.class, () -> taskList.getTask(2));
+    }
+
+    @Test
+    public void testListingSeesSnapshotWhileListChanges() throws BuddyException {
+        ConcurrentTaskList taskList = new ConcurrentTaskList(new CompactTaskList());
+        for (int i = 0; i < 5; i++) {
+            taskList.addTodo("Task " + i);
+        }
+        List<String> listed = new ArrayList<>();
+        int count = taskList.forEachMatching(TaskFilter.ALL, 0, Integer.MAX_VALUE, (task, index) -> {
+            if (index == 0) {
+                // A listing holds no lock, so writers are free to change the list meanwhile
+                assertDoesNotThrow(() -> taskList.deleteTask(4));
+                taskList.addTodo("Task 5");
+            }
+            listed.add(task.getDescription());
+        });
+
+        assertEquals(5, count);
+        assertEquals(List.of("Task 0", "Task 1", "Task 2", "Task 3", "Task 4"), listed);
+        List<Task> tasks = taskList.getTasks();
+        taskList.markTaskAsDone(0);
+        assertFalse(tasks.get(0).isDone());
+        assertTrue(taskList.getTasks().get(0).isDone());
+        assertEquals("Task 5", taskList.getTasks().get(4).getDescription());
+    }
+
+    @Test
+    public void testReadersSeeConsistentListWhileWriterChangesIt() throws Exception {
+        ConcurrentTaskList taskList = new ConcurrentTaskList(new IndexedTaskList());
+        for (int i = 0; i < 1000; i++) {
+            taskList.addTodo("Seed task " + i);
+        }
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    while (isWriting.get()) {
+                        // Seed tasks are never deleted, only extra ones come and go
+                        assertEquals(1000, taskList.findTasks("seed").size());
+                        for (Task task : taskList.findTasks("extra")) {
+                            assertTrue(task.getDescription().startsWith("Extra task"));
+                        }
+                        assertTrue(taskList.size() >= 1000);
+                        assertEquals("Seed task 999", taskList.getTask(999).getDescription());
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < 2000; i++) {
+                Task task = taskList.addTodo("Extra task " + i);
+                if (i % 2 == 1) {
+                    taskList.deleteTaskById(task.getId());
+                }
+            }
+            isWriting.set(false);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2000, taskList.size());
+        assertEquals(1000, taskList.findTasks("extra").size());
+    }
+
+    @Test
+    public void testAgendaComesFromSnapshotInTimeOrder() throws BuddyException {
+        TaskList plain = new IndexedTaskList();
+        ConcurrentTaskList taskList = new ConcurrentTaskList(new IndexedTaskList());
+        LocalDateTime start = LocalDateTime.of(2025, 4, 1, 9, 0);
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime time = start.plusHours((i * 37L) % 300);
+            if (i % 3 == 0) {
+                plain.addTodo("Todo " + i);
+                taskList.addTodo("Todo " + i);
+            } else if (i % 3 == 1) {
+                plain.addDeadline("Deadline " + i, time);
+                taskList.addDeadline("Deadline " + i, time);
+            } else {
+                plain.addEvent("Event " + i, time, time.plusDays(2));
+                taskList.addEvent("Event " + i, time, time.plusDays(2));
+            }
+        }
+        LocalDateTime from = start.plusDays(3);
+        LocalDateTime to = start.plusDays(8);
+
+        List<Long> expected = new ArrayList<>();
+        plain.getAgenda(from, to).forEachRemaining(task -> expected.add(task.getId()));
+        List<Long> agenda = new ArrayList<>();
+        Iterator<Task> iterator = taskList.getAgenda(from, to);
+        // The agenda is a snapshot, so changes made while reading it do not show
+        taskList.deleteTaskById(expected.get(0));
+        taskList.addDeadline("Late deadline", from);
+        iterator.forEachRemaining(task -> agenda.add(task.getId()));
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, agenda);
+    }
+
+    @Test
+    public void testMarkingLeavesSnapshotsOfPlainListUnchanged() throws BuddyException {
+        ConcurrentTaskList taskList = new ConcurrentTaskList(new IndexedTaskList());
+        LocalDateTime by = LocalDateTime.of(2025, 4, 15, 14, 0);
+        taskList.addDeadline("Return book", by);
+        taskList.addDeadline("Return card", by);
+        List<Task> before = taskList.getTasks();
+
+        taskList.markTaskAsDoneById(1);
+
+        assertFalse(before.get(0).isDone());
+        assertTrue(taskList.getTasks().get(0).isDone());
+        assertTrue(taskList.getTaskById(1).isDone());
+        assertTrue(taskList.findTasks("book").get(0).isDone());
+        Iterator<Task> agenda = taskList.getAgenda(by, by);
+        assertTrue(agenda.next().isDone());
+        assertEquals(2, agenda.next().getId());
+    }
+}
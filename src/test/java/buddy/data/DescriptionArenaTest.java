@@ -0,0 +1,35 @@
+package buddy.data;
+
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptionArenaTest {
+    @Test
+    public void testStoreAndReadBack() {
+        DescriptionArena arena = new DescriptionArena(true);
+        String longDescription = "x".repeat(5000);
+        int first = arena.store("Read Straße book".getBytes(StandardCharsets.UTF_8));
+        int second = arena.store(longDescription.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("Read Straße book", arena.read(first));
+        assertEquals(longDescription, arena.read(second));
+        assertEquals(17, arena.length(first));
+        assertEquals('R', arena.byteAt(first, 0));
+    }
+
+    @Test
+    public void testFreedBlocksAreReused() {
+        DescriptionArena arena = new DescriptionArena(false);
+        int handle = arena.store("Submit report".getBytes(StandardCharsets.UTF_8));
+        long reserved = arena.getBytesReserved();
+        arena.free(handle);
+        assertEquals(0, arena.getBytesInUse());
+
+        int reused = arena.store("Call mom today".getBytes(StandardCharsets.UTF_8));
+        assertEquals(handle, reused);
+        assertEquals("Call mom today", arena.read(reused));
+        assertEquals(reserved, arena.getBytesReserved());
+    }
+}
@@ -0,0 +1,40 @@
+package buddy.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptionPoolTest {
+    @Test
+    public void testEqualDescriptionsShareOneString() {
+        DescriptionPool pool = new DescriptionPool(16);
+        String first = pool.intern(new String("Team meeting"));
+        String second = pool.intern(new String("Team meeting"));
+
+        assertSame(first, second);
+        assertEquals(1, pool.getHitCount());
+        assertTrue(pool.getBytesSaved() > 0);
+        assertNull(pool.intern(null));
+    }
+
+    @Test
+    public void testPoolStaysBounded() {
+        DescriptionPool pool = new DescriptionPool(8);
+        String[] kept = new String[1000];
+        for (int i = 0; i < kept.length; i++) {
+            kept[i] = pool.intern("Task " + i);
+        }
+        // Evicted descriptions are still returned as they are
+        assertEquals("Task 7", pool.intern(new String("Task 7")));
+        assertSame(kept[999], pool.intern(new String("Task 999")));
+    }
+
+    @Test
+    public void testTaskListSharesRepeatedDescriptions() {
+        TaskList taskList = new IndexedTaskList();
+        Task first = taskList.addTodo(new String("Water plants"));
+        Task second = taskList.addTodo(new String("Water plants"));
+
+        assertSame(first.getDescription(), second.getDescription());
+    }
+}
@@ -0,0 +1,27 @@
+package buddy.data;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisplayDateCacheTest {
+    @Test
+    public void testSameMinuteSharesOneString() {
+        LocalDateTime time = LocalDateTime.of(2025, 4, 15, 14, 0);
+        String first = DisplayDateCache.format(time);
+        assertEquals("Apr 15 2025, 2:00 PM", first);
+        assertSame(first, DisplayDateCache.format(time.withSecond(30)));
+        assertEquals("Apr 15 2025, 2:01 PM", DisplayDateCache.format(time.plusMinutes(1)));
+    }
+
+    @Test
+    public void testRenderingIsUnchangedByMarking() {
+        LocalDateTime from = LocalDateTime.of(2025, 4, 15, 14, 0);
+        Event event = new Event("Team meeting", from, from.plusHours(2));
+        String pending = event.toString();
+        event.markAsDone();
+        assertEquals(pending.replace("[ ]", "[X]"), event.toString());
+        assertEquals("[E][X] Team meeting (from: Apr 15 2025, 2:00 PM to: Apr 15 2025, 4:00 PM)", event.toString());
+    }
+}
@@ -0,0 +1,67 @@
+package buddy.data;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskChunksTest {
+    @Test
+    public void testSnapshotsKeepTheirVersion() {
+        List<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            initial.add(new Todo("Task " + i));
+        }
+        TaskChunks chunks = new TaskChunks(initial);
+        List<Task> before = chunks.snapshot();
+
+        chunks.remove(0);
+        chunks.set(600, new Todo("Replaced"));
+        chunks.add(new Todo("Appended"));
+
+        assertEquals(initial, before);
+        List<Task> after = chunks.snapshot();
+        assertEquals(1500, after.size());
+        assertEquals("Task 1", after.get(0).getDescription());
+        assertEquals("Replaced", after.get(600).getDescription());
+        assertEquals("Appended", after.get(1499).getDescription());
+        assertEquals("Task 601", before.get(601).getDescription());
+    }
+
+    @Test
+    public void testRandomChangesMatchArrayList() {
+        Random random = new Random(42);
+        List<Task> expected = new ArrayList<>();
+        TaskChunks chunks = new TaskChunks(expected);
+        List<List<Task>> expectedVersions = new ArrayList<>();
+        List<List<Task>> snapshots = new ArrayList<>();
+        for (int step = 0; step < 20000; step++) {
+            int choice = random.nextInt(10);
+            if (expected.isEmpty() || choice < 5) {
+                Task task = new Todo("Task " + step);
+                expected.add(task);
+                chunks.add(task);
+            } else if (choice < 8) {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                chunks.remove(index);
+            } else {
+                int index = random.nextInt(expected.size());
+                Task task = new Todo("Set " + step);
+                expected.set(index, task);
+                chunks.set(index, task);
+            }
+            if (step % 997 == 0) {
+                expectedVersions.add(new ArrayList<>(expected));
+                snapshots.add(chunks.snapshot());
+            }
+        }
+        assertEquals(expected, chunks.snapshot());
+        assertEquals(expected.size(), chunks.size());
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(expectedVersions.get(i), snapshots.get(i));
+        }
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,7 +16,7 @@ public class TaskListTest {
 
     @BeforeEach
     public void setUp() {
-        taskList = new TaskList();
+        taskList = new IndexedTaskList();
     }
 
     @Test
@@ -68,6 +71,56 @@ public class TaskListTest {
         assertEquals(2, foundTasks.size());
     }
 
+    @Test
+    public void testFindTasksAfterAddAndDelete() throws BuddyException {
+        taskList.addTodo("Read Java book");
+        taskList.addTodo("Complete Java assignment");
+        assertEquals(2, taskList.findTasks("java").size());
+
+        taskList.deleteTask(0);
+        taskList.addTodo("JavaScript tutorial");
+        ArrayList<Task> foundTasks = taskList.findTasks("JAV");
+        assertEquals(2, foundTasks.size());
+        assertEquals("Complete Java assignment", foundTasks.get(0).getDescription());
+        assertEquals("JavaScript tutorial", foundTasks.get(1).getDescription());
+    }
+
+    @Test
+    public void testFindTasksMatchesSubstringsAcrossWords() {
+        taskList.addTodo("Read book");
+        taskList.addTodo("Return books");
+        taskList.addTodo("Bookmark page");
+
+        assertEquals(2, taskList.findTasks("d book").size() + taskList.findTasks("n book").size());
+        assertEquals(3, taskList.findTasks("ook").size());
+        assertEquals(2, taskList.findTasks("re").size());
+        assertEquals(0, taskList.findTasks("cook").size());
+    }
+
+    @Test
+    public void testFindTasksMatchesScanAfterRandomChanges() throws BuddyException {
+        Random random = new Random(7);
+        String[] words = {"read", "return", "book", "bookmark", "java", "report", "review", "meet"};
+        taskList.findTasks("book");
+        for (int step = 0; step < 5000; step++) {
+            if (taskList.size() > 0 && random.nextInt(3) == 0) {
+                taskList.deleteTask(random.nextInt(taskList.size()));
+            } else {
+                taskList.addTodo(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]);
+            }
+        }
+
+        for (String keyword : new String[] {"book", "ook", "re", "rea", "view", "java meet", "k m", "zzz"}) {
+            List<Task> expected = new ArrayList<>();
+            for (Task task : taskList.getTasks()) {
+                if (task.getDescription().contains(keyword)) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, taskList.findTasks(keyword));
+        }
+    }
+
     @Test
     public void testGetTasksOnDate() {
         LocalDateTime today = LocalDateTime.now();
@@ -80,4 +133,120 @@ public class TaskListTest {
         ArrayList<Task> tasksToday = taskList.getTasksOnDate(today);
         assertEquals(2, tasksToday.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetTasksOnDateMatchesMiddleDaysOfEvents() throws BuddyException {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 26, 14, 0);
+        taskList.addEvent("Conference", start, start.plusDays(3));
+        taskList.addDeadline("Submit slides", start.plusDays(1));
+        taskList.addEvent("Other meeting", start.plusDays(5), start.plusDays(5));
+
+        ArrayList<Task> tasksOnDate = taskList.getTasksOnDate(start.plusDays(1));
+        assertEquals(2, tasksOnDate.size());
+        assertEquals("Conference", tasksOnDate.get(0).getDescription());
+        assertEquals(0, taskList.getTasksOnDate(start.plusDays(4)).size());
+
+        taskList.deleteTask(0);
+        assertEquals(1, taskList.getTasksOnDate(start.plusDays(1)).size());
+        assertEquals(0, taskList.getTasksOnDate(start.plusDays(2)).size());
+    }
+
+    @Test
+    public void testGetAgendaReturnsRangeInChronologicalOrder() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 24, 9, 0);
+        taskList.addDeadline("Submit slides", start.plusDays(2));
+        taskList.addEvent("Conference", start.minusDays(1), start.plusDays(1));
+        taskList.addTodo("Read book");
+        taskList.addDeadline("Pay rent", start.plusDays(7));
+        taskList.addEvent("Workshop", start.plusDays(3).plusHours(5), start.plusDays(1));
+        taskList.addDeadline("Call mom", start.plusDays(2).minusHours(1));
+
+        Iterator<Task> agenda = taskList.getAgenda(start, start.plusDays(6));
+        ArrayList<String> descriptions = new ArrayList<>();
+        while (agenda.hasNext()) {
+            descriptions.add(agenda.next().getDescription());
+        }
+        assertEquals(List.of("Conference", "Workshop", "Call mom", "Submit slides"), descriptions);
+        assertFalse(taskList.getAgenda(start.plusDays(8), start.plusDays(9)).hasNext());
+    }
+
+    @Test
+    public void testTaskIdsAreStableAcrossDeletes() throws BuddyException {
+        for (int i = 1; i <= 100; i++) {
+            taskList.addTodo("Task " + i);
+        }
+        for (int i = 1; i <= 100; i += 2) {
+            taskList.deleteTaskById(i);
+        }
+        assertEquals(50, taskList.size());
+        assertEquals("Task 42", taskList.getTaskById(42).getDescription());
+        assertEquals(20, taskList.getIndexById(42));
+        assertThrows(BuddyException.class, () -> taskList.getTaskById(41));
+
+        Task added = taskList.addTodo("Task 101");
+        assertEquals(101, added.getId());
+        assertTrue(taskList.markTaskAsDoneById(101).isDone());
+    }
+
+    @Test
+    public void testIdLookupsFollowTasksThroughCompaction() throws BuddyException {
+        for (int i = 1; i <= 200; i++) {
+            taskList.addTodo("Task " + i);
+        }
+        for (int i = 1; i <= 150; i++) {
+            // Enough deletes by ID to squeeze out the tombstones under the ID map
+            taskList.deleteTaskById(i);
+        }
+        assertTrue(taskList.markTaskAsDoneById(180).isDone());
+        assertEquals(29, taskList.getIndexById(180));
+        assertTrue(taskList.getTask(29).isDone());
+        assertEquals("Task 200", taskList.deleteTaskById(200).getDescription());
+        assertEquals(48, taskList.getIndexById(199));
+        assertThrows(BuddyException.class, () -> taskList.markTaskAsDoneById(150));
+    }
+
+    @Test
+    public void testPositionalDeletesKeepListOrder() throws BuddyException {
+        for (int i = 1; i <= 1000; i++) {
+            taskList.addTodo("Task " + i);
+        }
+        // Delete every task at an even position from the back, then the front half
+        for (int i = 999; i >= 0; i -= 2) {
+            taskList.deleteTask(i);
+        }
+        for (int i = 0; i < 250; i++) {
+            taskList.deleteTask(0);
+        }
+
+        assertEquals(250, taskList.size());
+        assertEquals("Task 501", taskList.getTask(0).getDescription());
+        assertEquals("Task 999", taskList.getTask(249).getDescription());
+        int expected = 501;
+        for (Task task : taskList.getTasks()) {
+            assertEquals("Task " + expected, task.getDescription());
+            expected += 2;
+        }
+        assertEquals(125, taskList.getIndexById(751));
+    }
+
+    @Test
+    public void testForEachMatchingPagesThroughFilteredTasks() throws BuddyException {
+        LocalDateTime by = LocalDateTime.of(2025, 4, 15, 14, 0);
+        for (int i = 1; i <= 10; i++) {
+            taskList.addTodo("Todo " + i);
+            taskList.addDeadline("Deadline " + i, by.plusDays(i));
+        }
+        taskList.markTaskAsDone(3);
+        taskList.markTaskAsDone(5);
+
+        List<Integer> indices = new ArrayList<>();
+        TaskFilter pendingDeadlines = new TaskFilter(TaskFilter.Status.PENDING, 'D');
+        int matchCount = taskList.forEachMatching(pendingDeadlines, 2, 3, (task, index) -> indices.add(index));
+        assertEquals(8, matchCount);
+        assertEquals(List.of(9, 11, 13), indices);
+
+        indices.clear();
+        assertEquals(20, taskList.forEachMatching(TaskFilter.ALL, 18, 5, (task, index) -> indices.add(index)));
+        assertEquals(List.of(18, 19), indices);
+    }
+}
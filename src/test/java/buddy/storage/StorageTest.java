@@ -0,0 +1,320 @@
+package buddy.storage;
+
+import buddy.data.IndexedTaskList;
+import buddy.data.Task;
+import buddy.data.TaskList;
+import buddy.util.BuddyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    private String dataFile() {
+        return tempDir.resolve("buddy.txt").toString().replace(File.separatorChar, '/');
+    }
+
+    @Test
+    public void testSaveAndLoad() throws BuddyException {
+        Storage storage = new Storage(dataFile());
+        TaskList taskList = new IndexedTaskList();
+        taskList.addTodo("Read book");
+        taskList.addDeadline("Submit report", LocalDateTime.of(2025, 3, 25, 18, 0));
+        taskList.markTaskAsDone(1);
+        storage.save(taskList.getTasks());
+
+        ArrayList<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(2, loaded.size());
+        assertEquals("Read book", loaded.get(0).getDescription());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    public void testBinaryFormatRoundTrip() throws BuddyException {
+        Storage storage = new Storage(dataFile());
+        storage.enableBinaryFormat();
+        TaskList taskList = new IndexedTaskList();
+        taskList.addTodo("Pipes | in | description");
+        taskList.addEvent("Conference", LocalDateTime.of(2025, 3, 26, 14, 0), LocalDateTime.of(2025, 3, 28, 16, 30));
+        taskList.markTaskAsDone(1);
+        storage.save(taskList.getTasks());
+
+        ArrayList<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(2, loaded.size());
+        assertEquals("Pipes | in | description", loaded.get(0).getDescription());
+        assertEquals(taskList.getTasks().get(1).toString(), loaded.get(1).toString());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    public void testMappedLoaderMatchesTextFormat() throws BuddyException, IOException {
+        Path file = tempDir.resolve("buddy.txt");
+        Files.writeString(file, "# seq 7\r\n# next-id 9\r\nT | 1 | Read book\r\n\n"
+                + "D | 0 | Submit report | 2025-03-25T18:00\n"
+                + "E | 0 | Team meeting | 2025-03-26T14:00 | 2025-03-26T16:00");
+
+        ArrayList<Task> loaded = new ArrayList<>();
+        SnapshotHeader header = MappedTaskLoader.load(file, loaded, new ArrayList<>());
+        assertEquals(7, header.getSeq());
+        assertEquals(9, header.getNextId());
+        assertEquals(3, loaded.size());
+        assertEquals("Read book", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals(new Storage(dataFile()).load().toString(), loaded.toString());
+    }
+
+    @Test
+    @DisabledOnOs(value = OS.WINDOWS, disabledReason = "Windows keeps a mapped file until the mapping is collected")
+    public void testMappedTasksOutliveTheirFile() throws BuddyException, IOException {
+        Path file = tempDir.resolve("buddy.txt");
+        Files.writeString(file, "T | 0 | Read book\nT | 0 | Return book\n");
+        ArrayList<Task> loaded = new ArrayList<>();
+        MappedTaskLoader.load(file, loaded, new ArrayList<>());
+
+        // Truncating a file that is still mapped would fail the first lazy decode
+        Files.writeString(file, "");
+        assertEquals("Read book", loaded.get(0).getDescription());
+        assertEquals("Return book", loaded.get(1).getDescription());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testCorruptedLinesAreSkippedAndReported() throws BuddyException, IOException {
+        Files.writeString(tempDir.resolve("buddy.txt"), "T | 0 | Task 1\nX | 0 | Bad type\nT | 1 | Task 2\n");
+
+        Storage storage = new Storage(dataFile());
+        ArrayList<Task> loaded = storage.load();
+        assertEquals(2, loaded.size());
+        assertEquals("Task 2", loaded.get(1).getDescription());
+        assertEquals(1, storage.getLoadWarnings().size());
+        assertTrue(storage.getLoadWarnings().get(0).startsWith("Line 2:"));
+
+        ArrayList<Task> mapped = new ArrayList<>();
+        ArrayList<String> warnings = new ArrayList<>();
+        MappedTaskLoader.load(tempDir.resolve("buddy.txt"), mapped, warnings);
+        assertEquals(loaded.toString(), mapped.toString());
+        assertEquals(storage.getLoadWarnings(), warnings);
+    }
+
+    @Test
+    public void testJournalReplay() throws BuddyException {
+        Storage storage = new Storage(dataFile());
+        storage.enableJournal();
+        TaskList taskList = new IndexedTaskList(storage.load());
+
+        Task first = taskList.addTodo("Task 1");
+        storage.saveAdd(taskList.getTasks(), first);
+        Task second = taskList.addTodo("Task 2");
+        storage.saveAdd(taskList.getTasks(), second);
+        Task marked = taskList.markTaskAsDone(1);
+        storage.saveMark(taskList.getTasks(), marked, true);
+        Task deleted = taskList.deleteTask(0);
+        storage.saveDelete(taskList.getTasks(), deleted);
+        storage.close();
+
+        assertTrue(new File(dataFile() + ".journal").exists());
+        ArrayList<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(1, loaded.size());
+        assertEquals("Task 2", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    @Test
+    public void testSnapshotSkipsFoldedJournalRecords() throws BuddyException {
+        Storage storage = new Storage(dataFile());
+        storage.enableJournal();
+        TaskList taskList = new IndexedTaskList(storage.load());
+        Task task = taskList.addTodo("Task 1");
+        storage.saveAdd(taskList.getTasks(), task);
+        storage.save(taskList.getTasks());
+
+        Storage reloaded = new Storage(dataFile());
+        reloaded.enableJournal();
+        TaskList reloadedList = new IndexedTaskList(reloaded.load());
+        Task next = reloadedList.addTodo("Task 2");
+        reloaded.saveAdd(reloadedList.getTasks(), next);
+        reloaded.close();
+
+        ArrayList<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(2, loaded.size());
+        assertEquals("Task 2", loaded.get(1).getDescription());
+    }
+
+    @Test
+    public void testAsyncWritesAreFlushedOnClose() throws BuddyException {
+        Storage storage = new Storage(dataFile());
+        storage.enableAsyncWrites(DurabilityPolicy.ON_EXIT, 0);
+        TaskList taskList = new IndexedTaskList(storage.load());
+        for (int i = 1; i <= 50; i++) {
+            Task task = taskList.addTodo("Task " + i);
+            storage.saveAdd(taskList.getTasks(), task);
+        }
+        Task marked = taskList.markTaskAsDone(49);
+        storage.saveMark(taskList.getTasks(), marked, true);
+        storage.close();
+
+        ArrayList<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(50, loaded.size());
+        assertTrue(loaded.get(49).isDone());
+    }
+
+    @Test
+    public void testDeferredWritesAreSavedOnClose() throws BuddyException {
+        Storage storage = new Storage(dataFile());
+        storage.deferWrites();
+        TaskList taskList = new IndexedTaskList(storage.load());
+        for (int i = 1; i <= 20; i++) {
+            Task task = taskList.addTodo("Task " + i);
+            storage.saveAdd(taskList.getTasks(), task);
+        }
+        storage.saveDelete(taskList.getTasks(), taskList.deleteTask(0));
+        assertEquals(0, new Storage(dataFile()).load().size());
+
+        storage.close();
+        ArrayList<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(19, loaded.size());
+        assertEquals("Task 2", loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void testInterruptedCompactionIsReplayed() throws BuddyException, IOException {
+        Files.writeString(tempDir.resolve("buddy.txt"), "# seq 1\nT | 0 | Task 1\n");
+        Files.writeString(tempDir.resolve("buddy.txt.journal.compacting"),
+                "1 A T | 0 | Task 1\n2 A T | 0 | Task 2\n");
+        Files.writeString(tempDir.resolve("buddy.txt.journal"), "3 M 1\n");
+
+        ArrayList<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    public void testTaskIdsPersistAcrossReload() throws BuddyException, IOException {
+        Files.writeString(tempDir.resolve("buddy.txt"), "T | 0 | Task 1\nT | 0 | Task 2\n");
+        Storage storage = new Storage(dataFile());
+        storage.enableJournal();
+        TaskList taskList = new IndexedTaskList(storage.load());
+        Task deleted = taskList.deleteTaskById(1);
+        storage.saveDelete(taskList.getTasks(), deleted);
+        Task added = taskList.addTodo("Task 3");
+        storage.saveAdd(taskList.getTasks(), added);
+        Task marked = taskList.markTaskAsDoneById(3);
+        storage.saveMark(taskList.getTasks(), marked, true);
+        storage.close();
+
+        Storage reloaded = new Storage(dataFile());
+        reloaded.enableBinaryFormat();
+        ArrayList<Task> loaded = reloaded.load();
+        assertEquals(2, loaded.get(0).getId());
+        assertEquals(3, loaded.get(1).getId());
+        assertTrue(loaded.get(1).isDone());
+
+        reloaded.save(loaded);
+        ArrayList<Task> fromBinary = new Storage(dataFile()).load();
+        assertEquals(2, fromBinary.get(0).getId());
+        assertEquals(3, fromBinary.get(1).getId());
+    }
+
+    @Test
+    public void testDeletedLastTaskIdIsNotReusedAfterRestart() throws BuddyException, IOException {
+        assertEquals(4, idAddedAfterRestart("buddy.txt", false, false));
+        assertTrue(Files.readString(tempDir.resolve("buddy.txt")).startsWith("# next-id 4"));
+        assertEquals(4, idAddedAfterRestart("buddy.bin", false, true));
+        assertEquals(4, idAddedAfterRestart("journaled.txt", true, false));
+    }
+
+    /**
+     * Adds three tasks, deletes the last one and restarts, returning the ID of the next task added.
+     */
+    private long idAddedAfterRestart(String fileName, boolean isJournaled, boolean isBinary)
+            throws BuddyException {
+        String path = tempDir.resolve(fileName).toString();
+        Storage storage = openStorage(path, isJournaled, isBinary);
+        TaskList taskList = new IndexedTaskList(storage.load());
+        for (int i = 1; i <= 3; i++) {
+            storage.saveAdd(taskList.getTasks(), taskList.addTodo("Task " + i));
+        }
+        storage.saveDelete(taskList.getTasks(), taskList.deleteTaskById(3));
+        storage.close();
+
+        Storage restarted = openStorage(path, isJournaled, isBinary);
+        TaskList restartedList = new IndexedTaskList(restarted.load());
+        restartedList.reserveIdsBelow(restarted.getNextId());
+        return restartedList.addTodo("Task 4").getId();
+    }
+
+    private static Storage openStorage(String path, boolean isJournaled, boolean isBinary) {
+        Storage storage = new Storage(path);
+        if (isJournaled) {
+            storage.enableJournal();
+        }
+        if (isBinary) {
+            storage.enableBinaryFormat();
+        }
+        return storage;
+    }
+
+    @Test
+    public void testConverterLeavesInputUntouched() throws BuddyException, IOException {
+        Path input = tempDir.resolve("buddy.txt");
+        Path journal = tempDir.resolve("buddy.txt.journal");
+        Files.writeString(input, "1 | T | 0 | Task 1\n");
+        Files.writeString(journal, "1 A 2 | T | 0 | Task 2\n2 D #9\n");
+
+        String output = tempDir.resolve("buddy.bin").toString();
+        assertEquals(2, TaskFileConverter.toBinary(input.toString(), output, new ArrayList<>()));
+        assertEquals("1 | T | 0 | Task 1\n", Files.readString(input));
+        assertEquals("1 A 2 | T | 0 | Task 2\n2 D #9\n", Files.readString(journal));
+        assertEquals("Task 2", new Storage(output).read().get(1).getDescription());
+    }
+
+    @Test
+    public void testConverterReportsSkippedLines() throws BuddyException, IOException {
+        Path input = tempDir.resolve("buddy.txt");
+        Files.writeString(input, "1 | T | 0 | Task 1\nnot a task\n2 | T | 0 | Task 2\n");
+
+        ArrayList<String> warnings = new ArrayList<>();
+        String output = tempDir.resolve("converted.txt").toString();
+        assertEquals(2, TaskFileConverter.toText(input.toString(), output, warnings));
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).startsWith("Line 2"), warnings.get(0));
+    }
+
+    @Test
+    public void testCorruptedBinaryLengthIsRejected() throws BuddyException, IOException {
+        Storage storage = new Storage(dataFile());
+        storage.enableBinaryFormat();
+        TaskList taskList = new IndexedTaskList();
+        taskList.addTodo("Read book");
+        storage.save(taskList.getTasks());
+
+        byte[] bytes = Files.readAllBytes(tempDir.resolve("buddy.txt"));
+        // The description length follows the 26-byte header, the flag byte and the ID
+        bytes[26 + 1 + 8] = (byte) 0x7f;
+        Files.write(tempDir.resolve("buddy.txt"), bytes);
+        assertThrows(BuddyException.class, () -> new Storage(dataFile()).read());
+    }
+
+    @Test
+    public void testJournalAppendCountsEncodedBytes() throws IOException {
+        Journal journal = new Journal(tempDir.resolve("buddy.journal").toString());
+        int written = journal.append(7, Journal.OP_ADD, "T|0|Caf\u00e9 \u2615 \uD83D\uDE00");
+        written += journal.append(8, Journal.OP_MARK, "1");
+        journal.close();
+
+        assertEquals(Files.size(tempDir.resolve("buddy.journal")), written);
+        assertEquals("T|0|Caf\u00e9 \u2615 \uD83D\uDE00", journal.readRecords().get(0).getPayload());
+    }
+}
@@ -0,0 +1,34 @@
+package buddy.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandMetricsTest {
+    @Test
+    public void testRolledBackScansAreCountedOnce() {
+        CommandMetrics metrics = new CommandMetrics();
+        metrics.beginCommand();
+        CommandMetrics.addTasksScanned(5);
+        long tasksScanned = CommandMetrics.getTasksScanned();
+        CommandMetrics.addTasksScanned(3);
+        // A lookup that is retried after a change counts its tasks again from the same point
+        CommandMetrics.rollBackTasksScanned(tasksScanned);
+        CommandMetrics.addTasksScanned(3);
+        metrics.recordCommand("find", 10, 20);
+
+        assertEquals(1, metrics.getCommandCount("find"));
+        assertEquals(8, metrics.getMax("find", "TASKS_SCANNED"));
+    }
+
+    @Test
+    public void testUnknownMetricReadsAsZero() {
+        CommandMetrics metrics = new CommandMetrics();
+        metrics.beginCommand();
+        metrics.recordCommand("list", 10, 20);
+
+        assertEquals(0, metrics.getMax("list", "NO_SUCH_METRIC"));
+        assertEquals(0, metrics.getPercentile("list", "execute_time", 50));
+        assertTrue(metrics.getMax("list", "EXECUTE_TIME") > 0);
+    }
+}
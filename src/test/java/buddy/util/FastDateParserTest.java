@@ -0,0 +1,55 @@
+package buddy.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastDateParserTest {
+    @Test
+    public void testParseBothShapes() {
+        LocalDateTime expected = LocalDateTime.of(2025, 4, 5, 14, 0);
+        assertEquals(expected, FastDateParser.parse("5/4/2025 1400"));
+        assertEquals(expected, FastDateParser.parse("05/04/2025 1400"));
+        assertEquals(expected, FastDateParser.parse("2025-04-05T14:00"));
+        assertEquals(expected.withHour(0), FastDateParser.parseDate("5/4/2025"));
+        assertEquals(expected.withHour(0), FastDateParser.parseDateWithOptionalTime("5/4/2025"));
+    }
+
+    @Test
+    public void testResolvesLikeSmartFormatter() {
+        assertEquals(LocalDateTime.of(2024, 2, 29, 9, 30), FastDateParser.parse("31/2/2024 0930"));
+        assertEquals(LocalDateTime.of(2025, 5, 1, 0, 0), FastDateParser.parse("2025-04-30T24:00"));
+    }
+
+    @Test
+    public void testRejectsOtherShapesWithoutThrowing() {
+        assertNull(FastDateParser.parse("5/4/2025"));
+        assertNull(FastDateParser.parse("32/4/2025 1400"));
+        assertNull(FastDateParser.parse("5/13/2025 1400"));
+        assertNull(FastDateParser.parse("5/4/2025 2460"));
+        assertNull(FastDateParser.parse("2025-04-05 14:00"));
+        assertNull(FastDateParser.parseDate("5/4/2025 1400"));
+        assertNull(FastDateParser.parseDateTime("tomorrow"));
+    }
+
+    @Test
+    public void testRejectsYearZero() {
+        assertNull(FastDateParser.parse("5/4/0000 1400"));
+        assertNull(FastDateParser.parse("0000-04-05T14:00"));
+        assertNull(FastDateParser.parseDate("5/4/0000"));
+        assertEquals(LocalDateTime.of(1, 4, 5, 0, 0), FastDateParser.parseDate("5/4/0001"));
+    }
+
+    @Test
+    public void testReadsYearsLikeFormatterPattern() {
+        LocalDateTime farFuture = LocalDateTime.of(12345, 4, 5, 14, 0);
+        assertEquals(farFuture, FastDateParser.parse("5/4/+12345 1400"));
+        assertEquals(farFuture, FastDateParser.parse("+12345-04-05T14:00"));
+        assertEquals(LocalDateTime.of(12, 4, 5, 0, 0), FastDateParser.parseDate("5/4/+00012"));
+        assertNull(FastDateParser.parse("5/4/12345 1400"));
+        assertNull(FastDateParser.parse("5/4/+2025 1400"));
+        assertNull(FastDateParser.parse("5/4/025 1400"));
+        assertNull(FastDateParser.parse("12345-04-05T14:00"));
+    }
+}
@@ -24,6 +24,14 @@ public class ParserTest {
         assertFalse(command.isExit());
     }
 
+    @Test
+    public void testParseStatsCommand() throws BuddyException {
+        Command command = Parser.parse("STATS");
+        assertTrue(command instanceof StatsCommand);
+        assertTrue(command.isReadOnly());
+        assertFalse(Parser.parse("todo read").isReadOnly());
+    }
+
     @Test
     public void testParseTodoCommand() throws BuddyException {
         Command command = Parser.parse("todo Read a book");
@@ -45,6 +53,16 @@ public class ParserTest {
         assertTrue(command instanceof EventCommand);
     }
 
+    @Test
+    public void testParseTaskIdTarget() throws BuddyException {
+        assertTrue(Parser.parse("mark #12") instanceof MarkCommand);
+        assertTrue(Parser.parse("delete #3") instanceof DeleteCommand);
+        Exception exception = assertThrows(BuddyException.class, () -> {
+            Parser.parse("unmark #x");
+        });
+        assertTrue(exception.getMessage().contains("Invalid task ID"));
+    }
+
     @Test
     public void testParseInvalidCommand() {
         Exception exception = assertThrows(BuddyException.class, () -> {
@@ -68,4 +86,38 @@ public class ParserTest {
         });
         assertTrue(exception.getMessage().contains("Invalid deadline format"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseCommandWordIgnoresCase() throws BuddyException {
+        assertTrue(Parser.parse("LIST") instanceof ListCommand);
+        assertTrue(Parser.parse("Todo Read a book") instanceof TodoCommand);
+        assertTrue(Parser.parse("agenda  1/12/2023\t7/12/2023 ") instanceof AgendaCommand);
+    }
+
+    @Test
+    public void testParseEventFlagsMustBeInOrder() {
+        Exception exception = assertThrows(BuddyException.class, () -> {
+            Parser.parse("event Team meeting /to 15/4/2025 1600 /from 15/4/2025 1400");
+        });
+        assertTrue(exception.getMessage().contains("Invalid event format"));
+        exception = assertThrows(BuddyException.class, () -> {
+            Parser.parse("deadline Submit report /by 15/4/2025 /by 16/4/2025");
+        });
+        assertTrue(exception.getMessage().contains("Invalid deadline format"));
+    }
+
+    @Test
+    public void testParseListPagesAndFilters() throws BuddyException {
+        assertTrue(Parser.parse("list 2") instanceof ListCommand);
+        assertTrue(Parser.parse("list 3 50 --pending --type d") instanceof ListCommand);
+        assertTrue(Parser.parse("list --done") instanceof ListCommand);
+        Exception exception = assertThrows(BuddyException.class, () -> {
+            Parser.parse("list 0");
+        });
+        assertTrue(exception.getMessage().contains("Invalid list format"));
+        exception = assertThrows(BuddyException.class, () -> {
+            Parser.parse("list --type X");
+        });
+        assertTrue(exception.getMessage().contains("task type"));
+    }
+}
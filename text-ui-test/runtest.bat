@@ -41,10 +41,16 @@ if exist ACTUAL.TXT (
     echo Cleaned up previous test outputs
 )
 
+REM start from an empty task list
+if exist data rmdir /s /q data
+
 echo.
 echo [3/4] Compiling source files...
-javac -cp ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\*.java
-IF ERRORLEVEL 1 (
+dir /s /b ..\src\main\java\*.java > sources.txt
+javac -cp ..\src\main\java -Xlint:none -d ..\bin @sources.txt
+set BUILDERROR=%ERRORLEVEL%
+del sources.txt
+IF NOT "%BUILDERROR%"=="0" (
     echo.
     echo =============== ERROR ===============
     echo         BUILD FAILURE              
@@ -56,7 +62,7 @@ echo [√] Compilation successful
 echo.
 
 echo [4/4] Running tests...
-java -classpath ..\bin Duke < input.txt > ACTUAL.TXT
+java -classpath ..\bin buddy.Buddy < input.txt > ACTUAL.TXT
 
 FC ACTUAL.TXT EXPECTED.TXT > nul
 if ERRORLEVEL 1 (
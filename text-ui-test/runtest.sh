@@ -48,9 +48,12 @@ then
     echo -e "${BLUE}Cleaned up previous test outputs${NC}"
 fi
 
+# start from an empty task list
+rm -rf ./data
+
 # compile the code into the bin folder, terminates if error occurred
 echo -e "\n${BOLD}[3/4] Compiling source files...${NC}"
-if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/*.java
+if ! javac -cp ../src/main/java -Xlint:none -d ../bin $(find ../src/main/java -name '*.java')
 then
     echo -e "\n${RED}╔════ ERROR ══════════════════════════════════╗${NC}"
     echo -e "${RED}║            BUILD FAILURE                     ║${NC}"
@@ -61,7 +64,7 @@ echo -e "${GREEN}✓ Compilation successful${NC}\n"
 
 # run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
 echo -e "${BOLD}[4/4] Running tests...${NC}"
-java -classpath ../bin Buddy < input.txt > ACTUAL.TXT
+java -classpath ../bin buddy.Buddy < input.txt > ACTUAL.TXT
 
 # convert to UNIX format
 cp EXPECTED.TXT EXPECTED-UNIX.TXT